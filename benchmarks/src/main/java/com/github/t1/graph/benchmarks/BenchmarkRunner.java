@@ -0,0 +1,16 @@
+package com.github.t1.graph.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/** Runs the benchmarks like the JMH main class does, but always with the GC/allocation profiler */
+public class BenchmarkRunner {
+    public static void main(String... args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.t1.graph.benchmarks;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.t1.graph.*;
+import com.github.t1.graph.Mark.StringMark;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// the small stack makes any recursion over long chains fail
+@Fork(value = 1, jvmArgsAppend = { "-Xss512k", "-Xmx4g" })
+public class GraphBenchmarks {
+    private static final Mark MARK = new StringMark("benchmark");
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    @Param
+    Shape shape;
+
+    private int[] from;
+    private int[] to;
+    private Graph<Integer> graph;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int[] count = { 0 };
+        shape.generate(size, (from, to) -> count[0]++);
+        this.from = new int[count[0]];
+        this.to = new int[count[0]];
+        count[0] = 0;
+        shape.generate(size, (from, to) -> {
+            this.from[count[0]] = from;
+            this.to[count[0]++] = to;
+        });
+        this.graph = load();
+    }
+
+    @Benchmark
+    public Graph<Integer> load() {
+        Graph<Integer> graph = new Graph<>();
+        for (int i = 0; i < from.length; i++)
+            graph.findOrCreateNode(from[i]).linkedTo(graph.findOrCreateNode(to[i]));
+        return graph;
+    }
+
+    @Benchmark
+    public List<List<Node<Integer>>> findStronglyConnectedComponents() {
+        return graph.findStronglyConnectedComponents();
+    }
+
+    @Benchmark
+    public void topologicalSort(Blackhole blackhole) {
+        try {
+            graph.topologicalSort();
+        } catch (CyclesFoundException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public int markAndUnmark() {
+        return graph.mark(MARK) + graph.unmark(StringMark.class);
+    }
+
+    @Benchmark
+    public List<Node<Integer>> find() {
+        return graph.find(node -> node.getValue() % 10 == 0);
+    }
+}
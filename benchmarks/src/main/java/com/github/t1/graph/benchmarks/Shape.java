@@ -0,0 +1,51 @@
+package com.github.t1.graph.benchmarks;
+
+import java.util.Random;
+
+/** The kinds of generated graphs; always the same links for the same size */
+public enum Shape {
+    /** every node links to up to three random nodes with a higher number */
+    RANDOM_DAG {
+        @Override
+        void generate(int size, Random random, LinkConsumer links) {
+            for (int from = 0; from < size - 1; from++)
+                for (int i = 0; i < 3; i++)
+                    links.link(from, from + 1 + random.nextInt(size - from - 1));
+        }
+    },
+
+    /** every node links to the next node */
+    CHAIN {
+        @Override
+        void generate(int size, Random random, LinkConsumer links) {
+            for (int from = 0; from < size - 1; from++)
+                links.link(from, from + 1);
+        }
+    },
+
+    /** clusters of 100 nodes with 5 random links each within the cluster and one link to the next cluster */
+    CYCLIC_CLUSTERS {
+        @Override
+        void generate(int size, Random random, LinkConsumer links) {
+            int clusterSize = 100;
+            for (int from = 0; from < size; from++) {
+                int cluster = from - from % clusterSize;
+                int clusterEnd = Math.min(cluster + clusterSize, size);
+                for (int i = 0; i < 5; i++)
+                    links.link(from, cluster + random.nextInt(clusterEnd - cluster));
+                if (from == cluster && clusterEnd < size)
+                    links.link(from, clusterEnd);
+            }
+        }
+    };
+
+    interface LinkConsumer {
+        void link(int from, int to);
+    }
+
+    abstract void generate(int size, Random random, LinkConsumer links);
+
+    public void generate(int size, LinkConsumer links) {
+        generate(size, new Random(size), links);
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.CompactGraphFile.slice;
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Records the changes of a {@link Graph#changeLog(ValueCodec) graph} in a compact binary form, so replicas can
+ * {@link Replay replay} them and stay current with work proportional to the changes. The first batch
+ * {@link #drain() drained} contains the state of the graph when the log was started.
+ * <p>
+ * Every change is one byte for the type, followed by the node ids as unsigned variable length ints: a node created
+ * with the length and bytes of its value; a node removed; a link added, with the weight as 8 bytes if it's not 1; a
+ * link removed; a node marked or unmarked with the index of the mark, which is defined with its name the first time it
+ * is used. The node ids are the ids in this graph, which the replay maps to the nodes it created.
+ */
+public class ChangeLog<T> {
+    private enum Change {
+        NODE_CREATED, NODE_REMOVED, LINK_ADDED, WEIGHTED_LINK_ADDED, LINK_REMOVED, MARK_DEFINED, MARKED, UNMARKED;
+
+        private static final Change[] VALUES = values();
+    }
+
+    private final ValueCodec<T> codec;
+    private final Map<Mark, Integer> markIndexes = new HashMap<>();
+    /** guarded by this */
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ChangeLog(ValueCodec<T> codec, List<Node<T>> nodes) {
+        this.codec = codec;
+        for (Node<T> node : nodes)
+            created(node);
+        for (Node<T> node : nodes)
+            for (int i = 0; i < node.getLinks().size(); i++)
+                linked(node, node.getLinks().get(i), node.getWeight(i));
+        for (Node<T> node : nodes)
+            for (Mark mark : node.getMarks())
+                marked(node, mark, true);
+    }
+
+    /** @return the changes since the last call, or since the log was started */
+    public synchronized byte[] drain() {
+        byte[] batch = out.toByteArray();
+        out = new ByteArrayOutputStream();
+        return batch;
+    }
+
+    synchronized void created(Node<T> node) {
+        byte[] value = codec.encode(node.getValue());
+        write(Change.NODE_CREATED);
+        writeInt(node.getId());
+        writeInt(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    synchronized void removed(Node<T> node) {
+        write(Change.NODE_REMOVED);
+        writeInt(node.getId());
+    }
+
+    synchronized void linked(Node<T> from, Node<T> to, double weight) {
+        write((weight == 1) ? Change.LINK_ADDED : Change.WEIGHTED_LINK_ADDED);
+        writeInt(from.getId());
+        writeInt(to.getId());
+        if (weight != 1) {
+            long bits = Double.doubleToLongBits(weight);
+            for (int i = 0; i < Long.BYTES; i++)
+                out.write((int) (bits >>> (8 * i)));
+        }
+    }
+
+    synchronized void unlinked(Node<T> from, Node<T> to) {
+        write(Change.LINK_REMOVED);
+        writeInt(from.getId());
+        writeInt(to.getId());
+    }
+
+    synchronized void marked(Node<T> node, Mark mark, boolean marked) {
+        Integer index = markIndexes.get(mark);
+        if (index == null) {
+            index = markIndexes.size();
+            markIndexes.put(mark, index);
+            byte[] name = mark.toString().getBytes(UTF_8);
+            write(Change.MARK_DEFINED);
+            writeInt(name.length);
+            out.write(name, 0, name.length);
+        }
+        write(marked ? Change.MARKED : Change.UNMARKED);
+        writeInt(node.getId());
+        writeInt(index);
+    }
+
+    private void write(Change change) {
+        out.write(change.ordinal());
+    }
+
+    private void writeInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Applies the batches {@link ChangeLog#drain() drained} from a change log to another graph, in the same order, and
+     * starting with the first batch. The replica graph should not be changed otherwise. Marks are matched by name with
+     * the known marks, or become {@link Mark.StringMark string marks}. To query a compact or immutable copy of the
+     * replica, take a {@link Graph#compact() compact graph} or a {@link Graph#snapshot() snapshot} of it.
+     */
+    public static class Replay<T> {
+        private final Graph<T> graph;
+        private final ValueCodec<T> codec;
+        private final Mark[] knownMarks;
+        /** the nodes of the replica by the ids in the original graph */
+        private final Map<Integer, Node<T>> nodes = new HashMap<>();
+        private final List<Mark> marks = new ArrayList<>();
+
+        public Replay(Graph<T> graph, ValueCodec<T> codec, Mark... knownMarks) {
+            this.graph = graph;
+            this.codec = codec;
+            this.knownMarks = knownMarks;
+        }
+
+        public Graph<T> getGraph() {
+            return graph;
+        }
+
+        /** @throws IllegalArgumentException if the batch is not valid */
+        public void apply(byte[] batch) {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                int type = buffer.get();
+                if (type < 0 || type >= Change.VALUES.length)
+                    throw new IllegalArgumentException("unknown change type " + type);
+                apply(Change.VALUES[type], buffer);
+            }
+        }
+
+        private void apply(Change change, ByteBuffer buffer) {
+            switch (change) {
+            case NODE_CREATED:
+                int id = readInt(buffer);
+                ByteBuffer value = slice(buffer, readInt(buffer));
+                nodes.put(id, graph.createNode(codec.decode(value)));
+                return;
+            case NODE_REMOVED:
+                int removed = readInt(buffer);
+                graph.remove(node(removed));
+                nodes.remove(removed);
+                return;
+            case LINK_ADDED:
+                node(buffer).linkedTo(node(buffer));
+                return;
+            case WEIGHTED_LINK_ADDED:
+                Node<T> from = node(buffer);
+                Node<T> to = node(buffer);
+                long bits = 0;
+                for (int i = 0; i < Long.BYTES; i++)
+                    bits |= (buffer.get() & 0xFFL) << (8 * i);
+                from.linkedTo(to, Double.longBitsToDouble(bits));
+                return;
+            case LINK_REMOVED:
+                node(buffer).unlink(node(buffer));
+                return;
+            case MARK_DEFINED:
+                ByteBuffer name = slice(buffer, readInt(buffer));
+                marks.add(CompactGraphFile.mark(UTF_8.decode(name).toString(), knownMarks));
+                return;
+            case MARKED:
+                node(buffer).mark(mark(buffer));
+                return;
+            case UNMARKED:
+                node(buffer).unmark(mark(buffer));
+                return;
+            default:
+                throw new IllegalStateException("unexpected change " + change);
+            }
+        }
+
+        private Node<T> node(ByteBuffer buffer) {
+            return node(readInt(buffer));
+        }
+
+        private Node<T> node(int id) {
+            Node<T> node = nodes.get(id);
+            if (node == null)
+                throw new IllegalArgumentException("no node with id " + id);
+            return node;
+        }
+
+        private Mark mark(ByteBuffer buffer) {
+            int index = readInt(buffer);
+            if (index >= marks.size())
+                throw new IllegalArgumentException("no mark with index " + index);
+            return marks.get(index);
+        }
+
+        /** an <code>int</code> takes at most 5 bytes with 7 bits each */
+        private static int readInt(ByteBuffer buffer) {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IllegalArgumentException("varint longer than 5 bytes");
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.github.t1.graph;
+
+import static java.lang.Math.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.*;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable snapshot of a {@link Graph}, storing the links as
+ * <a href="https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_(CSR,_CRS_or_Yale_format)">compressed
+ * sparse rows</a>: the targets of vertex <code>v</code> are <code>targets[offsets[v]]</code> up to (excluding)
+ * <code>targets[offsets[v + 1]]</code>. Vertices are numbered by the position of their node in the graph at the time of
+ * the snapshot. Links to nodes that are not in the graph are dropped. The {@link Graph#register(Mark) registered}
+ * marks are stored as one bit per vertex.
+ * <p>
+ * A compact graph can be {@link #write(Path, ValueCodec) written} to a file and {@link #load(Path, ValueCodec, Mark...)
+ * loaded} from it by mapping the file into memory, so only the values are decoded, and only when needed. As the nodes
+ * themselves are not stored, the {@link #node(int) nodes} of a loaded graph are detached copies without links.
+ * <p>
+ * For very big graphs, an {@link #offHeap() off-heap} copy keeps the links and marks out of the Java heap, so the
+ * garbage collector doesn't have to care about them.
+ */
+public class CompactGraph<T> {
+    private static final int UNVISITED = -1;
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final int size;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntFunction<T> values;
+    /** the bits by vertex for every registered mark */
+    private final Map<Mark, LongBuffer> marks;
+
+    /** only for snapshots of a graph, <code>null</code> for loaded graphs */
+    private final Node<T>[] nodes;
+    private final int[] vertexById;
+    private Map<T, Integer> vertexByValue;
+
+    @SuppressWarnings("unchecked")
+    CompactGraph(List<Node<T>> nodes, int idLimit, RegisteredMarks registeredMarks) {
+        this.nodes = nodes.toArray((Node<T>[]) new Node<?>[0]);
+        this.size = this.nodes.length;
+        this.values = vertex -> this.nodes[vertex].getValue();
+        this.vertexById = new int[idLimit];
+        Arrays.fill(vertexById, UNVISITED);
+        for (int v = 0; v < size; v++)
+            vertexById[this.nodes[v].getId()] = v;
+
+        int[] offsets = new int[size + 1];
+        for (int v = 0; v < size; v++) {
+            int degree = 0;
+            for (Node<T> target : this.nodes[v].getLinks())
+                if (vertexOf(target) >= 0)
+                    degree++;
+            offsets[v + 1] = offsets[v] + degree;
+        }
+        int[] targets = new int[offsets[size]];
+        for (int v = 0; v < size; v++) {
+            int i = offsets[v];
+            for (Node<T> target : this.nodes[v].getLinks()) {
+                int w = vertexOf(target);
+                if (w >= 0)
+                    targets[i++] = w;
+            }
+        }
+        this.offsets = IntBuffer.wrap(offsets);
+        this.targets = IntBuffer.wrap(targets);
+
+        this.marks = new LinkedHashMap<>();
+        registeredMarks.forEach((mark, column) -> {
+            BitSet bits = new BitSet(size);
+            column.stream().forEach(id -> {
+                if (id < vertexById.length && vertexById[id] != UNVISITED)
+                    bits.set(vertexById[id]);
+            });
+            marks.put(mark, LongBuffer.wrap(Arrays.copyOf(bits.toLongArray(), (size + 63) / 64)));
+        });
+    }
+
+    CompactGraph(int size, IntBuffer offsets, IntBuffer targets, IntFunction<T> values, Map<Mark, LongBuffer> marks) {
+        this(size, offsets, targets, values, marks, null, null);
+    }
+
+    private CompactGraph(int size, IntBuffer offsets, IntBuffer targets, IntFunction<T> values,
+            Map<Mark, LongBuffer> marks, Node<T>[] nodes, int[] vertexById) {
+        this.size = size;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.values = values;
+        this.marks = marks;
+        this.nodes = nodes;
+        this.vertexById = vertexById;
+    }
+
+    /**
+     * @return a copy of this graph with the links and mark bits in direct buffers, i.e. outside of the Java heap; only
+     *         the values (and the nodes of a snapshot) stay on the heap. The memory is released when the copy is
+     *         garbage collected. Each buffer is limited to 2 GB, i.e. about 500 million links.
+     */
+    public CompactGraph<T> offHeap() {
+        Map<Mark, LongBuffer> directMarks = new LinkedHashMap<>();
+        marks.forEach((mark, bits) -> {
+            LongBuffer direct = allocateDirect(bits.limit() * Long.BYTES).asLongBuffer();
+            direct.put(bits.duplicate());
+            ((Buffer) direct).flip();
+            directMarks.put(mark, direct);
+        });
+        return new CompactGraph<>(size, direct(offsets), direct(targets), values, directMarks, nodes, vertexById);
+    }
+
+    private static IntBuffer direct(IntBuffer buffer) {
+        IntBuffer direct = allocateDirect(buffer.limit() * Integer.BYTES).asIntBuffer();
+        direct.put(buffer.duplicate());
+        ((Buffer) direct).flip();
+        return direct;
+    }
+
+    private static ByteBuffer allocateDirect(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /** @return are the links stored outside of the Java heap, i.e. {@link #offHeap() off-heap} or mapped from a file */
+    public boolean isDirect() {
+        return targets.isDirect();
+    }
+
+    /**
+     * Write this graph to a file in a binary format, so it can be {@link #load(Path, ValueCodec, Mark...) loaded} by
+     * mapping the file into memory.
+     */
+    public void write(Path path, ValueCodec<T> codec) throws IOException {
+        CompactGraphFile.write(this, path, codec);
+    }
+
+    /**
+     * Map a file {@link #write(Path, ValueCodec) written} before into memory. The values are decoded only when
+     * needed. Other JVMs mapping the same file share the memory.
+     *
+     * @param marks to resolve the marks by their <code>toString</code>; other marks are loaded as
+     *              {@link Mark.StringMark}s
+     */
+    public static <T> CompactGraph<T> load(Path path, ValueCodec<T> codec, Mark... marks) throws IOException {
+        return CompactGraphFile.load(path, codec, marks);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int linkCount() {
+        return targets.limit();
+    }
+
+    public T value(int vertex) {
+        return values.apply(vertex);
+    }
+
+    /** @return the node of this vertex; for loaded graphs a detached copy without links */
+    public Node<T> node(int vertex) {
+        return (nodes == null) ? new Graph<T>().createNode(value(vertex)) : nodes[vertex];
+    }
+
+    /** @return the vertex of this node or -1, if the node was not in the graph when the snapshot was taken */
+    public int vertexOf(Node<T> node) {
+        if (vertexById == null)
+            return vertexOf(node.getValue());
+        int id = node.getId();
+        return (id < vertexById.length) ? vertexById[id] : UNVISITED;
+    }
+
+    /** @return the vertex with this value or -1; the first call indexes all values */
+    public int vertexOf(T value) {
+        if (vertexByValue == null) {
+            Map<T, Integer> map = new HashMap<>();
+            for (int v = 0; v < size; v++)
+                map.put(value(v), v);
+            vertexByValue = map;
+        }
+        return vertexByValue.getOrDefault(value, UNVISITED);
+    }
+
+    public int degree(int vertex) {
+        return offsets.get(vertex + 1) - offsets.get(vertex);
+    }
+
+    public int target(int vertex, int i) {
+        return targets.get(offsets.get(vertex) + i);
+    }
+
+    public void forEachLink(int vertex, IntConsumer consumer) {
+        for (int i = offsets.get(vertex); i < offsets.get(vertex + 1); i++)
+            consumer.accept(targets.get(i));
+    }
+
+    public void visit(IntConsumer visitor) {
+        for (int vertex = 0; vertex < size; vertex++)
+            visitor.accept(vertex);
+    }
+
+    /** @return the vertices matching the predicate, in ascending order */
+    public int[] find(IntPredicate predicate) {
+        int[] found = new int[16];
+        int count = 0;
+        for (int vertex = 0; vertex < size; vertex++) {
+            if (predicate.test(vertex)) {
+                if (count == found.length)
+                    found = Arrays.copyOf(found, count * 2);
+                found[count++] = vertex;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public boolean isLinkedTo(int from, int to) {
+        for (int i = offsets.get(from); i < offsets.get(from + 1); i++)
+            if (targets.get(i) == to)
+                return true;
+        return false;
+    }
+
+    public Set<Mark> getMarks() {
+        return Collections.unmodifiableSet(marks.keySet());
+    }
+
+    public boolean isMarked(int vertex, Mark mark) {
+        LongBuffer bits = marks.get(mark);
+        return bits != null && (bits.get(vertex >>> 6) & (1L << vertex)) != 0;
+    }
+
+    public List<Mark> getMarks(int vertex) {
+        List<Mark> list = new ArrayList<>();
+        for (Mark mark : marks.keySet())
+            if (isMarked(vertex, mark))
+                list.add(mark);
+        return list;
+    }
+
+    /**
+     * @return the strongly connected components in the same order as {@link Graph#findStronglyConnectedComponents()},
+     *         i.e. every component comes after all components it links to.
+     */
+    public List<int[]> findStronglyConnectedComponents() {
+        int n = size;
+        List<int[]> components = new ArrayList<>();
+        int[] index = new int[n];
+        int[] lowLink = new int[n];
+        BitSet onStack = new BitSet(n);
+        int[] stack = new int[n];
+        int[] path = new int[n];
+        int[] linkPositions = new int[n];
+        Arrays.fill(index, UNVISITED);
+        int nextIndex = 0;
+        int stackSize = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (index[start] != UNVISITED)
+                continue;
+            int pathSize = 0;
+            index[start] = lowLink[start] = nextIndex++;
+            stack[stackSize++] = start;
+            onStack.set(start);
+            path[pathSize] = start;
+            linkPositions[pathSize++] = offsets.get(start);
+            while (pathSize > 0) {
+                int v = path[pathSize - 1];
+                if (linkPositions[pathSize - 1] < offsets.get(v + 1)) {
+                    int w = targets.get(linkPositions[pathSize - 1]++);
+                    if (index[w] == UNVISITED) {
+                        index[w] = lowLink[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        onStack.set(w);
+                        path[pathSize] = w;
+                        linkPositions[pathSize++] = offsets.get(w);
+                    } else if (onStack.get(w)) {
+                        lowLink[v] = min(lowLink[v], index[w]);
+                    }
+                } else {
+                    pathSize--;
+                    if (lowLink[v] == index[v]) {
+                        int end = stackSize;
+                        do
+                            onStack.clear(stack[--stackSize]);
+                        while (stack[stackSize] != v);
+                        int[] component = new int[end - stackSize];
+                        for (int i = 0; i < component.length; i++)
+                            component[i] = stack[end - 1 - i];
+                        components.add(component);
+                    }
+                    if (pathSize > 0) {
+                        int predecessor = path[pathSize - 1];
+                        lowLink[predecessor] = min(lowLink[predecessor], lowLink[v]);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Find the strongly connected components in parallel, if the graph has at least
+     * {@value #PARALLEL_THRESHOLD} vertices; smaller graphs are not worth the overhead.
+     *
+     * @return the strongly connected components in no specific order
+     */
+    public List<int[]> findStronglyConnectedComponents(ForkJoinPool pool) {
+        if (size < PARALLEL_THRESHOLD)
+            return findStronglyConnectedComponents();
+        return new ParallelStronglyConnectedComponents(this).find(pool);
+    }
+
+    /**
+     * @return the vertices, so every vertex comes before all vertices it links to
+     * @throws CyclesFoundException if there are cycles
+     */
+    public int[] topologicalSort() {
+        List<int[]> components = findStronglyConnectedComponents();
+        List<List<Node<T>>> cycles = new ArrayList<>();
+        List<int[][]> cycleLinks = new ArrayList<>();
+        int[] sorted = new int[components.size()];
+        int i = sorted.length;
+        for (int[] component : components) {
+            if (isCycle(component)) {
+                cycles.add(nodes(component));
+                cycleLinks.add(localLinks(component));
+            }
+            sorted[--i] = component[0];
+        }
+        if (!cycles.isEmpty())
+            throw new CyclesFoundException(cycles, cycleLinks);
+        return sorted;
+    }
+
+    /** like {@link Graph#isCycle(List)}, but for vertices */
+    private boolean isCycle(int[] component) {
+        return component.length > 1 || isLinkedTo(component[0], component[0]);
+    }
+
+    /** the links within the component by the index of the vertices in the component, as loaded nodes have no links */
+    private int[][] localLinks(int[] component) {
+        Map<Integer, Integer> localIndex = new HashMap<>();
+        for (int i = 0; i < component.length; i++)
+            localIndex.put(component[i], i);
+        int[][] links = new int[component.length][];
+        for (int i = 0; i < component.length; i++) {
+            int vertex = component[i];
+            links[i] = IntStream.range(offsets.get(vertex), offsets.get(vertex + 1))
+                    .map(targets::get)
+                    .filter(localIndex::containsKey)
+                    .map(localIndex::get)
+                    .toArray();
+        }
+        return links;
+    }
+
+    public List<Node<T>> nodes(int[] vertices) {
+        List<Node<T>> list = new ArrayList<>(vertices.length);
+        for (int vertex : vertices)
+            list.add(node(vertex));
+        return list;
+    }
+
+    /** @return can the <code>to</code> vertex be reached from the <code>from</code> vertex by one or more links */
+    public boolean isReachable(int from, int to) {
+        return reachableFrom(from, to).get(to);
+    }
+
+    /** @return all vertices that can be reached from this vertex by following one or more links */
+    public BitSet reachableFrom(int vertex) {
+        return reachableFrom(vertex, UNVISITED);
+    }
+
+    private BitSet reachableFrom(int vertex, int stopAt) {
+        BitSet reached = new BitSet(size);
+        int[] stack = new int[size];
+        int stackSize = 0;
+        stack[stackSize++] = vertex;
+        while (stackSize > 0) {
+            int v = stack[--stackSize];
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                int w = targets.get(i);
+                if (!reached.get(w)) {
+                    reached.set(w);
+                    if (w == stopAt)
+                        return reached;
+                    stack[stackSize++] = w;
+                }
+            }
+        }
+        return reached;
+    }
+
+    IntBuffer offsets() {
+        return offsets.duplicate();
+    }
+
+    IntBuffer targets() {
+        return targets.duplicate();
+    }
+
+    LongBuffer markBits(Mark mark) {
+        return marks.get(mark).duplicate();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (int v = 0; v < size; v++) {
+            if (v > 0)
+                out.append('\n');
+            out.append(value(v));
+            List<Mark> vertexMarks = getMarks(v);
+            if (!vertexMarks.isEmpty())
+                out.append(vertexMarks);
+            out.append(" -> {");
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                if (i > offsets.get(v))
+                    out.append(", ");
+                out.append(value(targets.get(i)));
+            }
+            out.append('}');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.t1.graph;
+
+import static java.nio.ByteOrder.*;
+import static java.nio.channels.FileChannel.MapMode.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.IntFunction;
+
+import com.github.t1.graph.Mark.StringMark;
+
+/**
+ * The binary file format of a {@link CompactGraph}, all numbers in little endian:
+ * <ol>
+ * <li>header: magic number, version, vertex count <code>n</code>, link count, mark count, and value byte count; all
+ * <code>int</code>s</li>
+ * <li>the link offsets: <code>n + 1</code> <code>int</code>s</li>
+ * <li>the link targets: link count <code>int</code>s</li>
+ * <li>the value offsets: <code>n + 1</code> <code>int</code>s</li>
+ * <li>for every mark: the length of its name as <code>int</code>, the UTF-8 bytes of the name, padding to 8 bytes, and
+ * the bits by vertex as <code>(n + 63) / 64</code> <code>long</code>s</li>
+ * <li>the values as encoded by the {@link ValueCodec}</li>
+ * </ol>
+ * The file is limited to 2 GB, as that's the maximum that can be mapped into one buffer.
+ */
+class CompactGraphFile {
+    private static final int MAGIC = 0x48505247; // "GRPH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    static <T> void write(CompactGraph<T> graph, Path path, ValueCodec<T> codec) throws IOException {
+        int n = graph.size();
+        byte[][] values = new byte[n][];
+        long valueBytes = 0;
+        for (int v = 0; v < n; v++) {
+            values[v] = codec.encode(graph.value(v));
+            valueBytes += values[v].length;
+        }
+        List<Mark> marks = new ArrayList<>(graph.getMarks());
+        List<byte[]> markNames = new ArrayList<>();
+        long total = HEADER_BYTES + (2 * ((long) n + 1) + graph.linkCount()) * Integer.BYTES;
+        for (Mark mark : marks) {
+            byte[] name = mark.toString().getBytes(UTF_8);
+            markNames.add(name);
+            total = align(total + Integer.BYTES + name.length) + (long) words(n) * Long.BYTES;
+        }
+        total += valueBytes;
+        if (total > Integer.MAX_VALUE)
+            throw new IOException("graph too big for one file: " + total + " bytes");
+
+        try (FileChannel channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            ByteBuffer buffer = channel.map(READ_WRITE, 0, total).order(LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(graph.linkCount()).putInt(marks.size())
+                    .putInt((int) valueBytes);
+            IntBuffer offsets = graph.offsets();
+            while (offsets.hasRemaining())
+                buffer.putInt(offsets.get());
+            IntBuffer targets = graph.targets();
+            while (targets.hasRemaining())
+                buffer.putInt(targets.get());
+            int valueOffset = 0;
+            buffer.putInt(valueOffset);
+            for (byte[] value : values)
+                buffer.putInt(valueOffset += value.length);
+            for (int m = 0; m < marks.size(); m++) {
+                buffer.putInt(markNames.get(m).length).put(markNames.get(m));
+                ((Buffer) buffer).position(align(buffer.position()));
+                LongBuffer bits = graph.markBits(marks.get(m));
+                while (bits.hasRemaining())
+                    buffer.putLong(bits.get());
+            }
+            for (byte[] value : values)
+                buffer.put(value);
+        }
+    }
+
+    static <T> CompactGraph<T> load(Path path, ValueCodec<T> codec, Mark... knownMarks) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            buffer = channel.map(READ_ONLY, 0, channel.size()).order(LITTLE_ENDIAN);
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt() != MAGIC)
+            throw new IOException("not a graph file: " + path);
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IOException("unsupported graph file version " + version + ": " + path);
+        int n = buffer.getInt();
+        int linkCount = buffer.getInt();
+        int markCount = buffer.getInt();
+        int valueBytes = buffer.getInt();
+        if (n < 0 || linkCount < 0 || markCount < 0 || valueBytes < 0)
+            throw new IOException("not a graph file: " + path);
+
+        require(buffer, (2 * ((long) n + 1) + linkCount) * Integer.BYTES, path);
+        IntBuffer offsets = slice(buffer, (n + 1) * Integer.BYTES).asIntBuffer();
+        IntBuffer targets = slice(buffer, linkCount * Integer.BYTES).asIntBuffer();
+        IntBuffer valueOffsets = slice(buffer, (n + 1) * Integer.BYTES).asIntBuffer();
+        Map<Mark, LongBuffer> marks = new LinkedHashMap<>();
+        for (int m = 0; m < markCount; m++) {
+            require(buffer, Integer.BYTES, path);
+            int nameLength = buffer.getInt();
+            if (nameLength < 0)
+                throw new IOException("not a graph file: " + path);
+            require(buffer, align(buffer.position() + (long) nameLength) - buffer.position()
+                    + (long) words(n) * Long.BYTES, path);
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            ((Buffer) buffer).position(align(buffer.position()));
+            marks.put(mark(new String(name, UTF_8), knownMarks), slice(buffer, words(n) * Long.BYTES).asLongBuffer());
+        }
+        require(buffer, valueBytes, path);
+        ByteBuffer values = slice(buffer, valueBytes);
+        requireRows(offsets, linkCount, path);
+        requireRows(valueOffsets, valueBytes, path);
+        for (int i = 0; i < linkCount; i++)
+            if (targets.get(i) < 0 || targets.get(i) >= n)
+                throw new IOException("not a graph file: " + path);
+
+        IntFunction<T> decoder = vertex -> {
+            ByteBuffer bytes = values.duplicate();
+            ((Buffer) bytes).limit(valueOffsets.get(vertex + 1)).position(valueOffsets.get(vertex));
+            return codec.decode(bytes.slice());
+        };
+        return new CompactGraph<>(n, offsets, targets, decoder, marks);
+    }
+
+    /** a truncated or corrupt file would otherwise fail with some runtime exception while slicing */
+    private static void require(ByteBuffer buffer, long bytes, Path path) throws IOException {
+        if (bytes > buffer.remaining())
+            throw new IOException("not a graph file: " + path);
+    }
+
+    /** the offsets must start at 0, not decrease, and end at the limit, so every row is within the data */
+    private static void requireRows(IntBuffer offsets, int limit, Path path) throws IOException {
+        int n = offsets.limit() - 1;
+        if (offsets.get(0) != 0 || offsets.get(n) != limit)
+            throw new IOException("not a graph file: " + path);
+        for (int i = 0; i < n; i++)
+            if (offsets.get(i) > offsets.get(i + 1))
+                throw new IOException("not a graph file: " + path);
+    }
+
+    static Mark mark(String name, Mark[] knownMarks) {
+        for (Mark mark : knownMarks)
+            if (mark.toString().equals(name))
+                return mark;
+        return new StringMark(name);
+    }
+
+    /** @return the next <code>bytes</code> of the buffer */
+    static ByteBuffer slice(ByteBuffer buffer, int bytes) {
+        ByteBuffer slice = buffer.duplicate();
+        ((Buffer) slice).limit(buffer.position() + bytes);
+        ((Buffer) buffer).position(buffer.position() + bytes);
+        return slice.slice().order(LITTLE_ENDIAN);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) / 64;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static int align(int position) {
+        return (int) align((long) position);
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.Graph.*;
+
+import java.util.List;
+
+import lombok.*;
+
+/**
+ * A strongly connected component of a graph, i.e. the value of a node in the {@link Graph#condense() condensed graph}.
+ * Components are equal, if they have the same index in the same condensation.
+ */
+@Value
+public class Component<T> {
+    /** the position of the component in the topological order of the condensed graph */
+    int index;
+    @EqualsAndHashCode.Exclude
+    List<Node<T>> nodes;
+
+    /** @return does this component contain a cycle, i.e. more than one node or a node that links to itself */
+    public boolean isCycle() {
+        return Graph.isCycle(nodes);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + nodeNames(nodes) + "]";
+    }
+}
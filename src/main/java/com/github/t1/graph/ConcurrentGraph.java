@@ -0,0 +1,184 @@
+package com.github.t1.graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A graph that many threads can build at the same time: the values are indexed in a concurrent map, and adding links
+ * or marks only locks the source node. The nodes are identified by their ids, which are dense, starting at 0.
+ * <p>
+ * To run algorithms like the {@link Graph#topologicalSort() topological sort}, take a {@link #snapshot()}: it
+ * briefly blocks all writers, so it is consistent, i.e. it contains every operation that completed before and none
+ * that started after. The node ids in the snapshot are the same as in this graph.
+ */
+public class ConcurrentGraph<T> {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int[] NO_LINKS = new int[0];
+
+    private static class Vertex<T> {
+        private final int id;
+        private final T value;
+        /** guarded by this */
+        private int[] links = NO_LINKS;
+        private int linkCount = 0;
+        private List<Mark> marks = null;
+
+        private Vertex(int id, T value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        private synchronized void link(int target) {
+            if (linkCount == links.length)
+                links = Arrays.copyOf(links, Math.max(4, linkCount * 2));
+            links[linkCount++] = target;
+        }
+
+        private synchronized boolean mark(Mark mark) {
+            if (marks == null)
+                marks = new ArrayList<>(2);
+            else if (marks.contains(mark))
+                return false;
+            return marks.add(mark);
+        }
+
+        private synchronized boolean unmark(Mark mark) {
+            return marks != null && marks.remove(mark);
+        }
+
+        private synchronized boolean isMarked(Mark mark) {
+            return marks != null && marks.contains(mark);
+        }
+    }
+
+    private final ConcurrentHashMap<T, Vertex<T>> index = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(0);
+    /**
+     * the vertices by id, in lazily allocated chunks, so they never have to be copied; only the small array of chunks
+     * is copied when a chunk is added, so readers never need a lock
+     */
+    @SuppressWarnings("unchecked")
+    private volatile AtomicReferenceArray<Vertex<T>>[] chunks = new AtomicReferenceArray[1];
+    /** writers share the read lock; a snapshot takes the write lock */
+    private final StampedLock lock = new StampedLock();
+
+    /** @return the id of the node with this value */
+    public int findOrCreateNode(T value) {
+        return write(() -> index.computeIfAbsent(value, this::createVertex).id);
+    }
+
+    private Vertex<T> createVertex(T value) {
+        Vertex<T> vertex = new Vertex<>(nextId.getAndIncrement(), value);
+        chunk(vertex.id).set(vertex.id & (CHUNK_SIZE - 1), vertex);
+        return vertex;
+    }
+
+    private AtomicReferenceArray<Vertex<T>> chunk(int id) {
+        int chunkIndex = id >>> CHUNK_BITS;
+        AtomicReferenceArray<Vertex<T>>[] chunks = this.chunks;
+        if (chunkIndex < chunks.length && chunks[chunkIndex] != null)
+            return chunks[chunkIndex];
+        return addChunk(chunkIndex);
+    }
+
+    private synchronized AtomicReferenceArray<Vertex<T>> addChunk(int chunkIndex) {
+        if (chunkIndex < chunks.length && chunks[chunkIndex] != null)
+            return chunks[chunkIndex];
+        AtomicReferenceArray<Vertex<T>>[] copy = Arrays.copyOf(chunks, Math.max(chunks.length, chunkIndex + 1));
+        copy[chunkIndex] = new AtomicReferenceArray<>(CHUNK_SIZE);
+        chunks = copy;
+        return copy[chunkIndex];
+    }
+
+    private Vertex<T> vertex(int id) {
+        if (id < 0 || id >= nextId.get())
+            throw new IllegalArgumentException("no node with id " + id);
+        return chunk(id).get(id & (CHUNK_SIZE - 1));
+    }
+
+    public OptionalInt findNode(T value) {
+        Vertex<T> vertex = index.get(value);
+        return (vertex == null) ? OptionalInt.empty() : OptionalInt.of(vertex.id);
+    }
+
+    public T getValue(int id) {
+        return vertex(id).value;
+    }
+
+    /** Link the node with the <code>from</code> id to the node with the <code>to</code> id */
+    public void link(int from, int to) {
+        vertex(to);
+        write(() -> {
+            vertex(from).link(to);
+            return null;
+        });
+    }
+
+    /** Link the node with the <code>from</code> value to the node with the <code>to</code> value, creating them */
+    public void link(T from, T to) {
+        write(() -> {
+            Vertex<T> source = index.computeIfAbsent(from, this::createVertex);
+            source.link(index.computeIfAbsent(to, this::createVertex).id);
+            return null;
+        });
+    }
+
+    public boolean mark(int id, Mark mark) {
+        return write(() -> vertex(id).mark(mark));
+    }
+
+    public boolean unmark(int id, Mark mark) {
+        return write(() -> vertex(id).unmark(mark));
+    }
+
+    public boolean isMarked(int id, Mark mark) {
+        return vertex(id).isMarked(mark);
+    }
+
+    private <R> R write(Supplier<R> operation) {
+        long stamp = lock.readLock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        return nextId.get();
+    }
+
+    /** @return a consistent copy of this graph; the nodes are in the order of their ids */
+    public Graph<T> snapshot() {
+        long stamp = lock.writeLock();
+        try {
+            Graph<T> graph = new Graph<>();
+            int size = nextId.get();
+            List<Node<T>> nodes = new ArrayList<>(size);
+            for (int id = 0; id < size; id++)
+                nodes.add(graph.createNode(vertex(id).value));
+            for (int id = 0; id < size; id++) {
+                Vertex<T> vertex = vertex(id);
+                Node<T> node = nodes.get(id);
+                synchronized (vertex) {
+                    for (int i = 0; i < vertex.linkCount; i++)
+                        node.linkedTo(nodes.get(vertex.links[i]));
+                    if (vertex.marks != null)
+                        vertex.marks.forEach(node::mark);
+                }
+            }
+            return graph;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** @return a consistent, compact snapshot of this graph */
+    public CompactGraph<T> compact() {
+        return snapshot().compact();
+    }
+}
@@ -1,28 +1,71 @@
 package com.github.t1.graph;
 
-import static com.github.t1.graph.Graph.*;
+import static java.util.Spliterator.*;
 import static java.util.stream.Collectors.*;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.*;
 
 import lombok.Getter;
 
 public class CyclesFoundException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    /** The message lists at most this many cycles with at most this many nodes each */
+    static final int MESSAGE_LIMIT = 10;
+
     <T> CyclesFoundException(List<List<Node<T>>> cycles) {
+        this(cycles, null);
+    }
+
+    /**
+     * @param links the links within each component, by the index of the nodes in the component, for nodes that don't
+     *        have these links themselves, e.g. the detached nodes of a loaded {@link CompactGraph}, or a link that was
+     *        rejected, as it would close the cycle
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    <T> CyclesFoundException(List<List<Node<T>>> cycles, List<int[][]> links) {
         this.cycles = (List) cycles;
+        this.links = links;
     }
 
+    /**
+     * The strongly connected components that contain cycles, i.e. all nodes that are part of some cycle, but not in
+     * the order of the cycles.
+     *
+     * @see #elementaryCycles(int, int)
+     */
     @Getter
     private final List<List<Node<?>>> cycles;
 
+    /** <code>null</code> to take the links of the nodes */
+    private final transient List<int[][]> links;
+
+    /**
+     * The concrete cycles within the {@link #getCycles() components}, each starting with the first node of the cycle
+     * in the component and then following the links. They are searched lazily, so stopping early is cheap, while all
+     * the cycles of a big component can be exponentially many.
+     *
+     * @param maxCount the maximum number of cycles returned
+     * @param maxLength cycles with more nodes are skipped
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Stream<List<Node<?>>> elementaryCycles(int maxCount, int maxLength) {
+        Iterator<List<Node<?>>> iterator = new ElementaryCycles(cycles, links, maxLength);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, ORDERED | NONNULL), false)
+                .limit(maxCount);
+    }
+
+    /** A summary of at most {@value #MESSAGE_LIMIT} cycles with at most {@value #MESSAGE_LIMIT} nodes each */
     @Override
     public String getMessage() {
-        return "found " + cycles.size() + " cycle(s) in graph:\n  " +
-                cycles.stream()
-                        .map(cycle -> listToString(" -> ", cycle, node -> node.getValue().toString()))
-                        .collect(joining("\n  "));
+        return "found " + cycles.size() + " cycle(s) in graph:\n  "
+                + cycles.stream().limit(MESSAGE_LIMIT).map(CyclesFoundException::summary).collect(joining("\n  "))
+                + ((cycles.size() > MESSAGE_LIMIT) ? "\n  ..." : "");
+    }
+
+    private static String summary(List<Node<?>> cycle) {
+        return cycle.stream().limit(MESSAGE_LIMIT).map(node -> node.getValue().toString()).collect(joining(" -> "))
+                + ((cycle.size() > MESSAGE_LIMIT) ? " -> ... (" + cycle.size() + " nodes)" : "");
     }
 }
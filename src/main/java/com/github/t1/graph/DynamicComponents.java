@@ -0,0 +1,262 @@
+package com.github.t1.graph;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import java.util.*;
+
+/**
+ * The strongly connected components of a graph, updated with every change: a new link that closes a cycle merges the
+ * components on that cycle, which costs a search through the nodes reachable from the target of the link; removing a
+ * link or a node within a component re-splits only that component. The component of a node is then a simple lookup.
+ * <p>
+ * The components are kept in a topological order, updated like in {@link DynamicTopologicalOrder}: a link that goes
+ * forward in this order can't close a cycle, and the search for a link going backwards is limited to the components
+ * between its two ends. New nodes get a position only with their first link: at the front, if they are the source, or
+ * at the end, if they are the target; so building a chain in either direction doesn't have to search at all.
+ */
+class DynamicComponents<T> {
+    private static final int NONE = -1;
+
+    private static class Members<T> {
+        private final List<Node<T>> nodes;
+        private boolean cycle;
+        private int position = NONE;
+        /** the number of the search that visited the component last */
+        private int visited;
+
+        private Members(List<Node<T>> nodes) {
+            this.nodes = nodes;
+            this.cycle = Graph.isCycle(nodes);
+        }
+    }
+
+    /** the components by node id */
+    private Members<T>[] byId;
+    /**
+     * the components by position from <code>first</code> to <code>end</code> (exclusive); <code>null</code> for the
+     * holes left by merged or removed components
+     */
+    private Members<T>[] order;
+    private int first;
+    private int end;
+    private int holes = 0;
+    private int search = 0;
+
+    @SuppressWarnings("unchecked")
+    DynamicComponents(List<List<Node<T>>> components, int idLimit) {
+        this.byId = new Members[Math.max(idLimit, 16)];
+        List<Members<T>> sorted = new ArrayList<>();
+        for (List<Node<T>> component : components)
+            sorted.add(put(component));
+        reverse(sorted);
+        this.order = new Members[0];
+        rebuild(-1, sorted);
+    }
+
+    List<Node<T>> componentOf(Node<T> node) {
+        return unmodifiableList(members(node).nodes);
+    }
+
+    boolean isInCycle(Node<T> node) {
+        return members(node).cycle;
+    }
+
+    private Members<T> members(Node<T> node) {
+        Members<T> members = (node.getId() < byId.length) ? byId[node.getId()] : null;
+        if (members == null)
+            throw new IllegalArgumentException("node " + node.getValue() + " is not in the graph");
+        return members;
+    }
+
+    void add(Node<T> node) {
+        if (node.getId() >= byId.length)
+            byId = copyOf(byId, Math.max(2 * byId.length, node.getId() + 1));
+        put(new ArrayList<>(singletonList(node)));
+    }
+
+    /** Called before the link is added */
+    void link(Node<T> from, Node<T> to) {
+        Members<T> source = byId[from.getId()];
+        if (from == to)
+            source.cycle = true;
+        Members<T> target = byId[to.getId()];
+        if (target.position == NONE)
+            append(target);
+        if (source.position == NONE)
+            prepend(source);
+        if (source == target || source.position < target.position)
+            return;
+        search++;
+        Set<Members<T>> cycle = reachingFrom(to, source);
+        Members<T> merged = source;
+        if (!cycle.isEmpty()) {
+            List<Node<T>> nodes = new ArrayList<>(source.nodes);
+            for (Members<T> members : cycle)
+                nodes.addAll(members.nodes);
+            merged = put(nodes);
+            holes += cycle.size();
+        }
+        reorder(target.position, source.position, merged);
+        compactIfSparse();
+    }
+
+    /**
+     * Depth first search for the components that can be reached from the start and that can reach the target, which
+     * comes at the upper end of the region to search. If one node of a component can reach the target, its root in the
+     * search does, too; so it's enough to collect the components of the nodes found.
+     */
+    private Set<Members<T>> reachingFrom(Node<T> start, Members<T> target) {
+        Set<Members<T>> found = newSetFromMap(new IdentityHashMap<>());
+        BitSet visited = new BitSet();
+        BitSet reaching = new BitSet();
+        List<Node<T>> path = new ArrayList<>();
+        int[] linkPositions = new int[16];
+        visited.set(start.getId());
+        byId[start.getId()].visited = search;
+        path.add(start);
+        while (!path.isEmpty()) {
+            int top = path.size() - 1;
+            Node<T> node = path.get(top);
+            int position = linkPositions[top];
+            if (position < node.getLinks().size()) {
+                linkPositions[top] = position + 1;
+                Node<T> successor = node.getLinks().get(position);
+                Members<T> members = byId[successor.getId()];
+                if (members == target)
+                    reaching.set(node.getId());
+                else if (members.position > target.position)
+                    continue;
+                else if (!visited.get(successor.getId())) {
+                    visited.set(successor.getId());
+                    members.visited = search;
+                    if (path.size() == linkPositions.length)
+                        linkPositions = copyOf(linkPositions, 2 * linkPositions.length);
+                    linkPositions[path.size()] = 0;
+                    path.add(successor);
+                } else if (reaching.get(successor.getId()))
+                    reaching.set(node.getId());
+            } else {
+                path.remove(top);
+                if (reaching.get(node.getId())) {
+                    found.add(byId[node.getId()]);
+                    if (top > 0)
+                        reaching.set(path.get(top - 1).getId());
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Within the region, first the components not visited by the search, then the merged component, then the other
+     * visited components, each keeping their relative order
+     */
+    private void reorder(int lower, int upper, Members<T> merged) {
+        List<Members<T>> reached = new ArrayList<>();
+        int next = lower;
+        for (int i = lower; i <= upper; i++) {
+            Members<T> members = order[i];
+            if (members == null || byId[members.nodes.get(0).getId()] == merged)
+                continue;
+            if (members.visited == search)
+                reached.add(members);
+            else
+                place(members, next++);
+        }
+        place(merged, next++);
+        for (Members<T> members : reached)
+            place(members, next++);
+        while (next <= upper)
+            order[next++] = null;
+    }
+
+    /** Called after all links from the source to the target have been removed */
+    void unlink(Node<T> from, Node<T> to) {
+        Members<T> members = byId[from.getId()];
+        if (from == to)
+            members.cycle = Graph.isCycle(members.nodes);
+        else if (members == byId[to.getId()])
+            split(members.nodes, members.position);
+    }
+
+    /** Called after the node has been removed with all its links */
+    void remove(Node<T> node) {
+        Members<T> members = byId[node.getId()];
+        List<Node<T>> remaining = new ArrayList<>(members.nodes);
+        remaining.remove(node);
+        byId[node.getId()] = null;
+        if (!remaining.isEmpty())
+            split(remaining, members.position);
+        else if (members.position != NONE) {
+            order[members.position] = null;
+            holes++;
+            compactIfSparse();
+        }
+    }
+
+    private void split(List<Node<T>> nodes, int position) {
+        int[] within = nodes.stream().mapToInt(Node::getId).sorted().toArray();
+        StronglyConnectedComponentsFinder<T> finder = new StronglyConnectedComponentsFinder<>(within);
+        nodes.forEach(finder);
+        List<Members<T>> components = new ArrayList<>();
+        for (List<Node<T>> component : finder.getStronglyConnectedComponents())
+            components.add(put(component));
+        reverse(components);
+        if (components.size() == 1)
+            place(components.get(0), position);
+        else
+            rebuild(position, components);
+    }
+
+    private void append(Members<T> members) {
+        if (end == order.length)
+            rebuild(-1, emptyList());
+        place(members, end++);
+    }
+
+    private void prepend(Members<T> members) {
+        if (first == 0)
+            rebuild(-1, emptyList());
+        place(members, --first);
+    }
+
+    private void compactIfSparse() {
+        if (holes > (end - first) / 2)
+            rebuild(-1, emptyList());
+    }
+
+    /**
+     * Copy the order without the holes to the middle of a new array with room at both ends, replacing the component at
+     * the position (if any) with the components; or, without a position, appending them
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild(int position, List<Members<T>> components) {
+        List<Members<T>> sorted = new ArrayList<>(end - first - holes + components.size());
+        for (int i = first; i < end; i++)
+            if (i == position)
+                sorted.addAll(components);
+            else if (order[i] != null)
+                sorted.add(order[i]);
+        if (position < 0)
+            sorted.addAll(components);
+        order = new Members[3 * sorted.size() + 16];
+        first = (order.length - sorted.size()) / 2;
+        end = first + sorted.size();
+        holes = 0;
+        for (int i = 0; i < sorted.size(); i++)
+            place(sorted.get(i), first + i);
+    }
+
+    private void place(Members<T> members, int position) {
+        order[position] = members;
+        members.position = position;
+    }
+
+    private Members<T> put(List<Node<T>> nodes) {
+        Members<T> members = new Members<>(nodes);
+        for (Node<T> node : nodes)
+            byId[node.getId()] = members;
+        return members;
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.t1.graph;
+
+import static java.util.Collections.*;
+
+import java.util.*;
+
+/**
+ * Keeps a topological order up to date while links are added, using the algorithm of Marchetti-Spaccamela, Nanni, and
+ * Rohnert: a new link that goes backwards in the current order only reorders the nodes between its two ends. A forward
+ * search from the target visits the nodes in this region reachable from it; if it reaches the source, the link would
+ * close a cycle; otherwise the visited nodes move behind all other nodes in the region.
+ *
+ * @see <a href="https://doi.org/10.1016/0020-0190(96)00014-4">On-line graph algorithms for incremental compilation</a>
+ */
+class DynamicTopologicalOrder<T> {
+    private static final int NONE = -1;
+
+    /** by position; <code>null</code> for removed nodes */
+    private Node<T>[] nodeAt;
+    private int size = 0;
+    /** the number of <code>null</code> positions */
+    private int holes = 0;
+    /** by node id */
+    private int[] positions = new int[0];
+    /** by node id: the number of the search that visited the node last */
+    private int[] visited = new int[0];
+    private int search = 0;
+
+    @SuppressWarnings("unchecked")
+    DynamicTopologicalOrder(List<Node<T>> sorted) {
+        this.nodeAt = (Node<T>[]) new Node<?>[Math.max(16, sorted.size())];
+        sorted.forEach(this::add);
+    }
+
+    void add(Node<T> node) {
+        int id = node.getId();
+        if (id >= positions.length) {
+            int length = Math.max(id + 1, positions.length * 2);
+            positions = Arrays.copyOf(positions, length);
+            visited = Arrays.copyOf(visited, length);
+        }
+        if (size == nodeAt.length)
+            nodeAt = Arrays.copyOf(nodeAt, size * 2);
+        positions[id] = size;
+        nodeAt[size++] = node;
+    }
+
+    /** Compacts the positions when more than half of them are removed nodes, so they don't accumulate */
+    void remove(Node<T> node) {
+        nodeAt[positions[node.getId()]] = null;
+        positions[node.getId()] = NONE;
+        if (++holes > size / 2)
+            compact();
+    }
+
+    private void compact() {
+        int next = 0;
+        for (int i = 0; i < size; i++)
+            if (nodeAt[i] != null)
+                place(nodeAt[i], next++);
+        Arrays.fill(nodeAt, next, size, null);
+        size = next;
+        holes = 0;
+    }
+
+    List<Node<T>> getNodes() {
+        List<Node<T>> nodes = new ArrayList<>(size - holes);
+        for (int i = 0; i < size; i++)
+            if (nodeAt[i] != null)
+                nodes.add(nodeAt[i]);
+        return nodes;
+    }
+
+    private int position(Node<T> node) {
+        return (node.getId() < positions.length) ? positions[node.getId()] : NONE;
+    }
+
+    /** @throws CyclesFoundException if the link would close a cycle; the order is unchanged then */
+    void link(Node<T> from, Node<T> to) {
+        int lower = position(to);
+        int upper = position(from);
+        if (lower == NONE || upper == NONE || lower > upper)
+            return;
+        if (lower == upper)
+            throw rejected(singletonList(from));
+        search++;
+        searchForward(from, to, upper);
+        reorder(lower, upper);
+    }
+
+    /** Depth first search with an explicit path, so the path is the cycle when we reach the source */
+    private void searchForward(Node<T> from, Node<T> to, int upper) {
+        List<Node<T>> path = new ArrayList<>();
+        int[] linkPositions = new int[16];
+        path.add(to);
+        visited[to.getId()] = search;
+        while (!path.isEmpty()) {
+            int top = path.size() - 1;
+            List<Node<T>> links = path.get(top).getLinks();
+            if (linkPositions[top] == links.size()) {
+                path.remove(top);
+                continue;
+            }
+            Node<T> successor = links.get(linkPositions[top]++);
+            if (successor == from) {
+                path.add(0, from);
+                throw rejected(path);
+            }
+            int position = position(successor);
+            if (position == NONE || position > upper || visited[successor.getId()] == search)
+                continue;
+            visited[successor.getId()] = search;
+            if (path.size() == linkPositions.length)
+                linkPositions = Arrays.copyOf(linkPositions, linkPositions.length * 2);
+            linkPositions[path.size()] = 0;
+            path.add(successor);
+        }
+    }
+
+    /** @param cycle starts with the source and then the target of the rejected link, which is not in the links */
+    private CyclesFoundException rejected(List<Node<T>> cycle) {
+        int[][] links = ElementaryCycles.localLinks(cycle);
+        int target = (cycle.size() > 1) ? 1 : 0;
+        links[0] = Arrays.copyOf(links[0], links[0].length + 1);
+        links[0][links[0].length - 1] = target;
+        return new CyclesFoundException(singletonList(cycle), singletonList(links));
+    }
+
+    /** Move the visited nodes behind all other nodes in the region, keeping their relative order */
+    private void reorder(int lower, int upper) {
+        List<Node<T>> reached = new ArrayList<>();
+        int next = lower;
+        for (int i = lower; i <= upper; i++) {
+            Node<T> node = nodeAt[i];
+            if (node == null)
+                continue;
+            if (visited[node.getId()] == search)
+                reached.add(node);
+            else
+                place(node, next++);
+        }
+        for (Node<T> node : reached)
+            place(node, next++);
+        while (next <= upper)
+            nodeAt[next++] = null;
+    }
+
+    private void place(Node<T> node, int position) {
+        nodeAt[position] = node;
+        positions[node.getId()] = position;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.t1.graph;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reads edge lists, i.e. text files with one link per line: the value of the source node, a delimiter (e.g. a comma or
+ * a tab), and the value of the target node. Empty lines and lines starting with a <code>#</code> are skipped. There is
+ * no quoting, so source values must not contain the delimiter.
+ * <p>
+ * The lines are streamed, so the file doesn't have to fit into memory. To parse chunks of a big file in parallel, make
+ * the stream {@link Stream#parallel() parallel}; {@link Graph#load(Stream)} still adds the links one by one in order.
+ */
+public class EdgeLists {
+    public static final char CSV = ',';
+    public static final char TSV = '\t';
+
+    public static Stream<Map.Entry<String, String>> read(Path path, char delimiter) throws IOException {
+        return Files.lines(path, UTF_8)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> parse(line, delimiter));
+    }
+
+    public static Map.Entry<String, String> parse(String line, char delimiter) {
+        int index = line.indexOf(delimiter);
+        if (index < 0)
+            throw new IllegalArgumentException("no delimiter '" + delimiter + "' in edge list line: " + line);
+        return new SimpleImmutableEntry<>(line.substring(0, index), line.substring(index + 1));
+    }
+
+    public static Graph<String> load(Path path, char delimiter) throws IOException {
+        Graph<String> graph = new Graph<>();
+        graph.load(read(path, delimiter).parallel());
+        return graph;
+    }
+}
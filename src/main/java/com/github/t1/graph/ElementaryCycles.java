@@ -0,0 +1,175 @@
+package com.github.t1.graph;
+
+import static java.util.Arrays.*;
+
+import java.util.*;
+
+/**
+ * Johnson's algorithm, finding the elementary cycles, i.e. the cycles that contain no node twice, within each strongly
+ * connected component, one at a time. The recursion is replaced by an explicit path, so the search can stop after
+ * every cycle found and continue when the next one is requested.
+ * <p>
+ * Paths longer than the maximum length are not followed, but they count as if they had found a cycle, so the nodes on
+ * them don't stay blocked and the shorter cycles through them are still found.
+ *
+ * @see <a href="https://doi.org/10.1137/0204007">Donald B. Johnson: Finding all the elementary circuits of a directed
+ *      graph</a>
+ */
+class ElementaryCycles<T> implements Iterator<List<Node<T>>> {
+    private final List<List<Node<T>>> components;
+    /** the links within each component by local index, or <code>null</code> to take the links of the nodes */
+    private final List<int[][]> componentLinks;
+    private final int maxLength;
+    private int component = -1;
+
+    /** the nodes of the current component and the links within it, both by local index */
+    private List<Node<T>> nodes;
+    private int[][] links;
+
+    /** the start node, i.e. the smallest local index of the current cycles */
+    private int start;
+    private boolean[] blocked;
+    /** the nodes to unblock when a node gets unblocked */
+    private BitSet[] blockedBy;
+
+    private int[] path;
+    private int[] linkPositions;
+    private boolean[] found;
+    private int pathSize = 0;
+
+    private List<Node<T>> next;
+
+    ElementaryCycles(List<List<Node<T>>> components, List<int[][]> componentLinks, int maxLength) {
+        this.components = components;
+        this.componentLinks = componentLinks;
+        this.maxLength = maxLength;
+    }
+
+    /** @return the links of the nodes to the other nodes in the list, by their index in the list */
+    static <T> int[][] localLinks(List<Node<T>> nodes) {
+        int[] localIndex = new int[nodes.stream().mapToInt(Node::getId).max().orElse(0) + 1];
+        fill(localIndex, -1);
+        for (int i = 0; i < nodes.size(); i++)
+            localIndex[nodes.get(i).getId()] = i;
+        int[][] links = new int[nodes.size()][];
+        for (int i = 0; i < nodes.size(); i++)
+            links[i] = nodes.get(i).getLinks().stream()
+                    .mapToInt(target -> (target.getId() < localIndex.length) ? localIndex[target.getId()] : -1)
+                    .filter(target -> target >= 0)
+                    .toArray();
+        return links;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null)
+            next = search();
+        return next != null;
+    }
+
+    @Override
+    public List<Node<T>> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        List<Node<T>> cycle = next;
+        next = null;
+        return cycle;
+    }
+
+    private List<Node<T>> search() {
+        while (true) {
+            if (pathSize == 0) {
+                if (!nextStart())
+                    return null;
+                continue;
+            }
+            int node = path[pathSize - 1];
+            if (linkPositions[pathSize - 1] < links[node].length) {
+                int target = links[node][linkPositions[pathSize - 1]++];
+                if (target == start) {
+                    found[pathSize - 1] = true;
+                    return cycle();
+                } else if (target > start && !blocked[target]) {
+                    if (pathSize < maxLength)
+                        enter(target);
+                    else
+                        found[pathSize - 1] = true;
+                }
+            } else {
+                leave(node);
+            }
+        }
+    }
+
+    private boolean nextStart() {
+        if (nodes != null && ++start < nodes.size()) {
+            fill(blocked, false);
+            for (BitSet bits : blockedBy)
+                bits.clear();
+            enter(start);
+            return true;
+        }
+        if (++component >= components.size())
+            return false;
+        init(components.get(component));
+        return true;
+    }
+
+    private void init(List<Node<T>> nodes) {
+        this.nodes = nodes;
+        int size = nodes.size();
+        this.links = (componentLinks == null) ? localLinks(nodes) : componentLinks.get(component);
+        this.blocked = new boolean[size];
+        this.blockedBy = new BitSet[size];
+        for (int i = 0; i < size; i++)
+            blockedBy[i] = new BitSet();
+        this.path = new int[size];
+        this.linkPositions = new int[size];
+        this.found = new boolean[size];
+        this.start = -1;
+    }
+
+    private void enter(int node) {
+        blocked[node] = true;
+        path[pathSize] = node;
+        linkPositions[pathSize] = 0;
+        found[pathSize++] = false;
+    }
+
+    private void leave(int node) {
+        boolean foundCycle = found[--pathSize];
+        if (foundCycle)
+            unblock(node);
+        else
+            for (int target : links[node])
+                if (target > start)
+                    blockedBy[target].set(node);
+        if (foundCycle && pathSize > 0)
+            found[pathSize - 1] = true;
+    }
+
+    private void unblock(int node) {
+        int[] stack = { node };
+        int stackSize = 1;
+        while (stackSize > 0) {
+            int current = stack[--stackSize];
+            if (!blocked[current])
+                continue;
+            blocked[current] = false;
+            BitSet bits = blockedBy[current];
+            for (int other = bits.nextSetBit(0); other >= 0; other = bits.nextSetBit(other + 1)) {
+                if (stackSize == stack.length)
+                    stack = copyOf(stack, 2 * stackSize);
+                stack[stackSize++] = other;
+            }
+            bits.clear();
+        }
+    }
+
+    private List<Node<T>> cycle() {
+        List<Node<T>> cycle = new ArrayList<>(pathSize);
+        for (int i = 0; i < pathSize; i++)
+            cycle.add(nodes.get(path[i]));
+        return cycle;
+    }
+}
@@ -6,12 +6,13 @@ import static java.util.stream.Collectors.*;
 
 import java.util.*;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.*;
 import java.util.function.*;
+import java.util.stream.*;
 
-import com.github.t1.graph.Mark.Index;
+import com.github.t1.graph.GraphListener.Phase;
 
-import lombok.Data;
+import lombok.*;
 
 @Data
 public class Graph<T> {
@@ -32,117 +33,694 @@ public class Graph<T> {
         return String.join(delimiter, list.stream().map(toString).collect(toList()));
     }
 
+    /** @return does this strongly connected component contain a cycle, i.e. more than one node or a self link */
+    static <T> boolean isCycle(List<Node<T>> component) {
+        return component.size() > 1 || component.get(0).isLinkedTo(component.get(0));
+    }
+
     private final List<Node<T>> nodes = new ArrayList<>();
 
+    /** The nodes by their value, so lookups don't have to scan all nodes */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Map<T, Node<T>> index = new HashMap<>();
+
+    /** All node ids are smaller than this */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private int nextId = 0;
+
+    /** The ids of the nodes currently in this graph */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final BitSet nodeIds = new BitSet();
+
+    @Getter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    private final RegisteredMarks registeredMarks = new RegisteredMarks();
+
+    /** <code>null</code> unless {@link #keepTopologicalOrder() enabled} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private DynamicTopologicalOrder<T> topologicalOrder;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean incomingLinks = false;
+
+    /** <code>null</code> until needed, and again when links change */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private Reachability<T> reachability;
+
+    /** <code>null</code> until the first {@link #snapshot()} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private PersistentAdjacency<T> persistentAdjacency;
+
+    /** <code>null</code> until the first {@link #componentOf(Node) component query} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private DynamicComponents<T> dynamicComponents;
+
+    /** <code>null</code> unless {@link #changeLog(ValueCodec) started} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private ChangeLog<T> changeLog;
+
+    /** Counts the changes to the nodes and links */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private long version = 0;
+
+    @NonNull
+    @EqualsAndHashCode.Exclude
+    private GraphListener listener = GraphListener.NONE;
+
     public Node<T> findOrCreateNode(T value) {
-        return findNode(value).orElseGet(() -> createNode(value));
+        Node<T> node = index.get(value);
+        return (node == null) ? createNode(value) : node;
     }
 
     public Optional<Node<T>> findNode(T value) {
-        List<Node<T>> found = find(node -> node.getValue().equals(value));
-        if (found.isEmpty())
-            return Optional.empty();
-        else if (found.size() == 1)
-            return Optional.of(found.get(0));
-        else
-            throw new IllegalStateException("multiple nodes with the same value to search for: " + value);
+        return Optional.ofNullable(index.get(value));
     }
 
     public Node<T> createNode(T value) {
-        Node<T> node = new Node<>(value);
+        if (index.containsKey(value))
+            throw new IllegalStateException("there is already a node with the value " + value);
+        Node<T> node = new Node<>(nextId++, value, this);
         nodes.add(node);
+        index.put(value, node);
+        nodeIds.set(node.getId());
+        version++;
+        if (persistentAdjacency != null)
+            persistentAdjacency.add(node.getId(), value);
+        if (dynamicComponents != null)
+            dynamicComponents.add(node);
+        if (changeLog != null)
+            changeLog.created(node);
+        if (topologicalOrder != null)
+            topologicalOrder.add(node);
+        if (incomingLinks)
+            node.incoming = new ArrayList<>();
         return node;
     }
 
+    /**
+     * Add a link for every entry from the node with the key value to the node with the value value, creating the
+     * nodes as needed. The stream may be parallel, e.g. to parse the entries in parallel, but the links are added one
+     * by one in the order of the stream. The stream is closed when done.
+     *
+     * @return the number of links added
+     * @see EdgeLists
+     */
+    public int load(Stream<? extends Map.Entry<T, T>> links) {
+        int[] count = { 0 };
+        try (Stream<? extends Map.Entry<T, T>> stream = links) {
+            stream.forEachOrdered(link -> {
+                findOrCreateNode(link.getKey()).linkedTo(findOrCreateNode(link.getValue()));
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    /** @return an immutable snapshot of the current nodes and links */
+    public CompactGraph<T> compact() {
+        long start = start();
+        CompactGraph<T> compact = new CompactGraph<>(nodes, nextId, registeredMarks);
+        done(Phase.COMPACT, start);
+        return compact;
+    }
+
+    /**
+     * @return an immutable view of the current nodes and links, which shares all unchanged parts with this graph, so
+     *         readers in other threads can query it while this graph keeps changing. The first snapshot copies the
+     *         graph; from then on, the graph keeps the shared structure up to date, so every snapshot costs constant
+     *         time, and the first change after a snapshot copies only the chunks of 64 nodes it touches and an array
+     *         with one reference per chunk. Changes to the {@link Node#getLinks() link lists} that bypass
+     *         {@link Node#linkedTo(Node)} are not included.
+     */
+    public GraphSnapshot<T> snapshot() {
+        if (persistentAdjacency == null)
+            persistentAdjacency = new PersistentAdjacency<>(nodes);
+        return persistentAdjacency.snapshot(version);
+    }
+
+    /**
+     * Start recording all changes to the nodes, links, and marks, e.g. to {@link ChangeLog.Replay replay} them on
+     * replicas. The first batch contains the current state of the graph. Changes to the {@link Node#getLinks() link
+     * lists} that bypass {@link Node#linkedTo(Node)} and {@link Node#unlink(Node)} are not recorded.
+     *
+     * @throws IllegalStateException if the change log has already been started
+     */
+    public ChangeLog<T> changeLog(ValueCodec<T> codec) {
+        if (changeLog != null)
+            throw new IllegalStateException("the change log has already been started");
+        changeLog = new ChangeLog<>(codec, nodes);
+        return changeLog;
+    }
+
     public void topologicalSort() {
+        long start = start();
+        replaceNodes(topologicallySorted());
+        done(Phase.TOPOLOGICAL_SORT, start);
+    }
+
+    private List<Node<T>> topologicallySorted() {
+        if (topologicalOrder != null)
+            return topologicalOrder.getNodes();
+
         List<List<Node<T>>> stronglyConnectedComponents = findStronglyConnectedComponents();
 
         List<Node<T>> sorted = new ArrayList<>();
         handleCycles(stronglyConnectedComponents, sorted);
 
         reverse(sorted);
-        replaceNodes(sorted);
+        return sorted;
+    }
+
+    /**
+     * From now on, update a topological order with every new link, so {@link Node#linkedTo(Node)} rejects links that
+     * would close a cycle right away, and {@link #topologicalSort()} doesn't have to sort the whole graph. Every new
+     * link costs time proportional to the number of nodes between the two nodes in the current order.
+     *
+     * @throws CyclesFoundException if the graph already has cycles
+     */
+    public void keepTopologicalOrder() {
+        if (topologicalOrder == null)
+            topologicalOrder = new DynamicTopologicalOrder<>(topologicallySorted());
+    }
+
+    /**
+     * From now on, keep a list of the incoming links for every node, so {@link Node#getIncoming()} is fast and
+     * {@link #remove(Node)} only has to touch the neighbours of the node. This costs an additional reference per link.
+     */
+    public void keepIncomingLinks() {
+        if (incomingLinks)
+            return;
+        incomingLinks = true;
+        visit(node -> node.incoming = new ArrayList<>());
+        visit(node -> node.forEachLink(target -> {
+            if (target.incoming != null)
+                target.incoming.add(node);
+        }));
+    }
+
+    void beforeLink(Node<T> from, Node<T> to) {
+        if (topologicalOrder != null)
+            topologicalOrder.link(from, to);
+        reachability = null;
+        version++;
+        if (persistentAdjacency != null)
+            persistentAdjacency.link(from.getId(), to.getId());
+        if (dynamicComponents != null)
+            dynamicComponents.link(from, to);
+    }
+
+    void afterLink(Node<T> from, Node<T> to, double weight) {
+        if (changeLog != null)
+            changeLog.linked(from, to, weight);
+    }
+
+    void afterMark(Node<T> node, Mark mark, boolean marked) {
+        if (changeLog != null)
+            changeLog.marked(node, mark, marked);
+    }
+
+    void afterUnlink(Node<T> from, Node<T> to) {
+        reachability = null;
+        version++;
+        if (persistentAdjacency != null)
+            persistentAdjacency.removeLinks(from.getId(), to.getId());
+        if (dynamicComponents != null)
+            dynamicComponents.unlink(from, to);
+        if (changeLog != null)
+            changeLog.unlinked(from, to);
+    }
+
+    /**
+     * Can the <code>to</code> node be reached from the <code>from</code> node by following one or more links? The
+     * first query finds the strongly connected components, and every query searches the components reachable from
+     * the component of the <code>from</code> node, unless they are in a cache of limited size. All of this is kept
+     * until links are added or removed, or nodes are removed. Changes to the {@link Node#getLinks() link lists} that bypass {@link Node#linkedTo(Node)} are not
+     * detected.
+     */
+    public boolean isReachable(Node<T> from, Node<T> to) {
+        return reachability().isReachable(from, to);
+    }
+
+    /**
+     * @return all nodes that can be reached from this node by following one or more links, in the order of the graph
+     * @see #isReachable(Node, Node)
+     */
+    public List<Node<T>> reachableFrom(Node<T> from) {
+        return reachability().reachableFrom(from);
+    }
+
+    private Reachability<T> reachability() {
+        if (reachability == null) {
+            long start = start();
+            reachability = new Reachability<>(compact());
+            done(Phase.REACHABILITY, start);
+        }
+        return reachability;
+    }
+
+    /**
+     * Breadth first search for the path with the fewest links, ignoring the weights.
+     *
+     * @return the path with its length being the number of links, or empty if <code>to</code> can't be reached
+     */
+    public Optional<WeightedPath<T>> shortestPath(Node<T> from, Node<T> to) {
+        return new PathFinder<>(nodes, nextId).fewestLinks(from, to);
+    }
+
+    /**
+     * Dijkstra search for the path with the smallest sum of the {@link Node#linkedTo(Node, double) weights}.
+     *
+     * @return the path with its length being the sum of the weights, or empty if <code>to</code> can't be reached
+     * @throws IllegalArgumentException if a link with a negative weight is reached
+     */
+    public Optional<WeightedPath<T>> lightestPath(Node<T> from, Node<T> to) {
+        return new PathFinder<>(nodes, nextId).lightest(from, to);
+    }
+
+    /**
+     * The longest path by the sum of the {@link Node#linkedTo(Node, double) weights}, e.g. the tasks that determine
+     * the total duration of a build pipeline, when the weights are the durations. The graph itself is not changed.
+     *
+     * @return the path, or an empty path if the graph is empty
+     * @throws CyclesFoundException if there are cycles
+     */
+    public WeightedPath<T> criticalPath() {
+        return new PathFinder<>(nodes, nextId).longest(topologicallySorted());
+    }
+
+    /**
+     * Sort the nodes into levels, so every node is in a later level than all nodes linking to it, i.e. the nodes in a
+     * level only depend on nodes in earlier levels and can be processed in parallel. Like {@link #topologicalSort()},
+     * the first level contains the nodes that no other node links to. The order of the nodes within a level is not
+     * specified. The graph itself is not changed.
+     *
+     * @throws CyclesFoundException if there are cycles
+     */
+    public List<List<Node<T>>> topologicalLevels() {
+        return topologicalLevels(ForkJoinPool.commonPool());
+    }
+
+    /** @see #topologicalLevels() */
+    public List<List<Node<T>>> topologicalLevels(ForkJoinPool pool) {
+        checkForCycles();
+        return new ParallelTopologicalSort<>(nodes, nodeIds, nextId).levels(pool);
+    }
+
+    /**
+     * Run the task for every node on the executor, each as soon as the tasks for all nodes linking to it have
+     * finished. The future completes when all tasks have finished or exceptionally with the first failure, in which
+     * case no more tasks are started. The graph must not be changed while the tasks run.
+     *
+     * @throws CyclesFoundException if there are cycles, before any task is started
+     */
+    public CompletableFuture<Void> execute(Executor executor, Consumer<Node<T>> task) {
+        checkForCycles();
+        return new ParallelTopologicalSort<>(nodes, nodeIds, nextId).execute(executor, task);
+    }
+
+    private void checkForCycles() {
+        handleCycles(findStronglyConnectedComponents(), new ArrayList<>());
+    }
+
+    /**
+     * Iterate the nodes in a topological order, i.e. every node comes before all nodes it links to, without changing
+     * the graph. The nodes are returned as soon as all nodes linking to them have been returned, so the consumer can
+     * start processing before the whole graph is sorted. The order can differ from {@link #topologicalSort()}. The
+     * graph must not be changed while iterating.
+     * <p>
+     * {@link Iterator#hasNext()} throws a {@link CyclesFoundException}, when only nodes in or behind cycles remain.
+     */
+    public Iterator<Node<T>> topologicalIterator() {
+        return new TopologicalIterator<>(nodes, nodeIds, nextId, this::cyclesFoundException);
+    }
+
+    /** @see #topologicalIterator() */
+    public Stream<Node<T>> topologicalStream() {
+        // not sized: iterating is what finds the cycles, so e.g. count() must not skip it
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(topologicalIterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    private CyclesFoundException cyclesFoundException() {
+        return new CyclesFoundException(cycles(findStronglyConnectedComponents()));
+    }
+
+    /**
+     * Build the <a href="https://en.wikipedia.org/wiki/Strongly_connected_component">condensation</a> of this graph:
+     * every strongly connected component becomes one node, and there is one link between two components, if any node
+     * in the first links to any node in the second. So the condensed graph has no cycles, except for components linking
+     * to themselves, which are not linked. The components are in topological order, so they can, e.g., be scheduled
+     * one after the other. This takes one pass over all nodes and links.
+     */
+    public Graph<Component<T>> condense() {
+        long start = start();
+        List<List<Node<T>>> stronglyConnectedComponents = findStronglyConnectedComponents();
+        int count = stronglyConnectedComponents.size();
+        int[] componentById = new int[nextId];
+        Arrays.fill(componentById, -1);
+        // reversed, as every component comes after all components it links to
+        for (int i = 0; i < count; i++)
+            for (Node<T> node : stronglyConnectedComponents.get(count - 1 - i))
+                componentById[node.getId()] = i;
+
+        Graph<Component<T>> condensed = new Graph<>();
+        List<Node<Component<T>>> componentNodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            componentNodes.add(condensed.createNode(new Component<>(i, stronglyConnectedComponents.get(count - 1 - i))));
+        int[] lastLinkedFrom = new int[count];
+        Arrays.fill(lastLinkedFrom, -1);
+        for (int i = 0; i < count; i++)
+            for (Node<T> node : componentNodes.get(i).getValue().getNodes())
+                for (Node<T> target : node.getLinks()) {
+                    int j = componentById[target.getId()];
+                    if (j >= 0 && j != i && lastLinkedFrom[j] != i) {
+                        lastLinkedFrom[j] = i;
+                        componentNodes.get(i).linkedTo(componentNodes.get(j));
+                    }
+                }
+        done(Phase.CONDENSE, start);
+        return condensed;
+    }
+
+    /**
+     * The strongly connected component of this node, i.e. all nodes that can reach each other. The first query finds
+     * all components; from then on, the graph updates them locally with every change, so the queries are simple
+     * lookups. Changes to the {@link Node#getLinks() link lists} that bypass {@link Node#linkedTo(Node)} and
+     * {@link Node#unlink(Node)} are not detected.
+     *
+     * @return the nodes in the component, in no specific order
+     */
+    public List<Node<T>> componentOf(Node<T> node) {
+        return dynamicComponents().componentOf(node);
+    }
+
+    /** @return is this node part of a cycle, i.e. is its {@link #componentOf(Node) component} a cycle? */
+    public boolean isInCycle(Node<T> node) {
+        return dynamicComponents().isInCycle(node);
+    }
+
+    private DynamicComponents<T> dynamicComponents() {
+        if (dynamicComponents == null)
+            dynamicComponents = new DynamicComponents<>(findStronglyConnectedComponents(), nextId);
+        return dynamicComponents;
+    }
+
+    /**
+     * Find the strongly connected components in parallel on this pool, if the graph is big enough.
+     *
+     * @return the strongly connected components in no specific order
+     * @see CompactGraph#findStronglyConnectedComponents(ForkJoinPool)
+     */
+    public List<List<Node<T>>> findStronglyConnectedComponents(ForkJoinPool pool) {
+        CompactGraph<T> compact = compact();
+        long start = start();
+        List<List<Node<T>>> stronglyConnectedComponents = compact.findStronglyConnectedComponents(pool).stream()
+                .map(compact::nodes).collect(toList());
+        stronglyConnectedComponentsFound(stronglyConnectedComponents, 0, start);
+        return stronglyConnectedComponents;
     }
 
     public List<List<Node<T>>> findStronglyConnectedComponents() {
-        StronglyConnectedComponentsFinder<T> visitor = new StronglyConnectedComponentsFinder<>();
+        long start = start();
+        StronglyConnectedComponentsFinder<T> visitor = new StronglyConnectedComponentsFinder<>(nextId);
 
         visit(visitor);
 
-        cleanup();
+        stronglyConnectedComponentsFound(visitor.getStronglyConnectedComponents(), visitor.getMaxDepth(), start);
         return visitor.getStronglyConnectedComponents();
     }
 
+    private void stronglyConnectedComponentsFound(List<List<Node<T>>> stronglyConnectedComponents, int maxDepth,
+            long start) {
+        if (listener == GraphListener.NONE)
+            return;
+        done(Phase.STRONGLY_CONNECTED_COMPONENTS, start);
+        listener.stronglyConnectedComponentsFound(stronglyConnectedComponents.size(),
+                cycles(stronglyConnectedComponents).size(), maxDepth);
+    }
+
+    /** @return the start time for {@link #done(Phase, long)}, only measured if there is a listener */
+    private long start() {
+        return (listener == GraphListener.NONE) ? 0 : System.nanoTime();
+    }
+
+    private void done(Phase phase, long start) {
+        if (listener != GraphListener.NONE)
+            listener.phaseDone(phase, nodes.size(), linkCount(), System.nanoTime() - start);
+    }
+
+    private int linkCount() {
+        int count = 0;
+        for (Node<T> node : nodes)
+            count += node.getLinks().size();
+        return count;
+    }
+
     private void handleCycles(List<List<Node<T>>> stronglyConnectedComponents, List<Node<T>> sorted) {
-        List<List<Node<T>>> cycles = new ArrayList<>();
-        stronglyConnectedComponents.forEach(scc -> {
-            if (scc.size() > 1)
-                cycles.add(scc);
-            Node<T> node = scc.iterator().next();
-            if (node.isLinkedTo(node))
-                cycles.add(scc);
-            sorted.add(node);
-        });
+        List<List<Node<T>>> cycles = cycles(stronglyConnectedComponents);
         if (!cycles.isEmpty())
             throw new CyclesFoundException(cycles);
+        stronglyConnectedComponents.forEach(scc -> sorted.add(scc.get(0)));
     }
 
-    private void cleanup() {
-        unmark(StronglyConnectedComponentsFinder.Root.class);
-        unmark(Index.class);
+    private List<List<Node<T>>> cycles(List<List<Node<T>>> stronglyConnectedComponents) {
+        List<List<Node<T>>> cycles = new ArrayList<>();
+        stronglyConnectedComponents.forEach(scc -> {
+            if (isCycle(scc))
+                cycles.add(scc);
+        });
+        return cycles;
     }
 
+    /** Only changes the order of the nodes, so the {@link #index} remains valid */
     private void replaceNodes(List<Node<T>> nodes) {
+        assert nodes.size() == this.nodes.size();
+        reachability = null;
         this.nodes.clear();
         this.nodes.addAll(nodes);
     }
 
+    /**
+     * Store this mark as a bit per node instead of in the mark list of every node, so marking and unmarking the whole
+     * graph are word-wide bit operations. This is useful for marks with a small set of values, e.g. an enum. Nodes
+     * already marked with it remain marked.
+     */
+    public void register(Mark mark) {
+        if (registeredMarks.column(mark) != null)
+            return;
+        BitSet column = new BitSet();
+        visit(node -> {
+            // not unmark, as the mark only moves and must not be reported as a change
+            if (node.removeFromMarkList(mark))
+                column.set(node.getId());
+        });
+        registeredMarks.register(mark, column);
+    }
+
     public int mark(Mark mark) {
-        return countingVisit(mark::mark);
+        BitSet column = registeredMarks.column(mark);
+        // the change log needs every node that changes
+        if (column == null || changeLog != null)
+            return count(mark::mark);
+        BitSet unmarked = (BitSet) nodeIds.clone();
+        unmarked.andNot(column);
+        column.or(unmarked);
+        return unmarked.cardinality();
     }
 
     public int unmark(Mark mark) {
-        return countingVisit(mark::unmark);
+        BitSet column = registeredMarks.column(mark);
+        if (column == null || changeLog != null)
+            return count(mark::unmark);
+        int count = column.cardinality();
+        column.clear();
+        return count;
     }
 
     public int unmark(Class<? extends Mark> type) {
-        return countingVisit(node -> node.unmark(type).isPresent());
+        return count(node -> node.unmark(type).isPresent());
     }
 
+    /** Prefer {@link #count(Predicate)}, which doesn't have to unbox the result for every node */
     public int countingVisit(Function<Node<T>, Boolean> visitor) {
-        AtomicInteger count = new AtomicInteger(0);
-        visit(node -> {
-            if (visitor.apply(node))
-                count.incrementAndGet();
-        });
-        return count.get();
+        return count(visitor::apply);
+    }
+
+    /** @return the number of nodes matching the predicate; the predicate may also change the nodes */
+    public int count(Predicate<Node<T>> predicate) {
+        int count = 0;
+        for (int i = 0; i < nodes.size(); i++)
+            if (predicate.test(nodes.get(i)))
+                count++;
+        return count;
+    }
+
+    /** @return the first node matching the predicate, without testing the remaining nodes */
+    public Optional<Node<T>> findFirst(Predicate<Node<T>> predicate) {
+        for (int i = 0; i < nodes.size(); i++)
+            if (predicate.test(nodes.get(i)))
+                return Optional.of(nodes.get(i));
+        return Optional.empty();
+    }
+
+    /** @return is there a node matching the predicate; stops at the first one */
+    public boolean anyMatch(Predicate<Node<T>> predicate) {
+        for (int i = 0; i < nodes.size(); i++)
+            if (predicate.test(nodes.get(i)))
+                return true;
+        return false;
     }
 
     public List<Node<T>> find(Mark mark) {
-        return find(mark::isMarked);
+        BitSet column = registeredMarks.column(mark);
+        if (column == null)
+            return find(mark::isMarked);
+        if (column.isEmpty())
+            return new ArrayList<>();
+        return find(node -> column.get(node.getId()));
     }
 
     public List<Node<T>> find(Predicate<Node<T>> predicate) {
-        List<Node<T>> found = new ArrayList<>();
-        visit(node -> {
-            if (predicate.test(node))
-                found.add(node);
-        });
-        return found;
+        return find(predicate, new ArrayList<>());
+    }
+
+    /**
+     * Add the nodes matching the predicate to the sink, e.g. to reuse a list for many queries instead of allocating a
+     * new one for every query.
+     *
+     * @return the sink
+     */
+    public <C extends Collection<? super Node<T>>> C find(Predicate<Node<T>> predicate, C sink) {
+        for (int i = 0; i < nodes.size(); i++)
+            if (predicate.test(nodes.get(i)))
+                sink.add(nodes.get(i));
+        return sink;
     }
 
     public void visit(Consumer<Node<T>> visitor) {
         nodes.forEach(visitor);
     }
 
+    /**
+     * Visit the nodes in parallel on this pool. The visitor must be thread safe, and it must not change
+     * {@link #register(Mark) registered} marks, as they are shared by all nodes.
+     */
+    public void visit(ForkJoinPool pool, Consumer<Node<T>> visitor) {
+        pool.submit(() -> nodes.parallelStream().forEach(visitor)).join();
+    }
+
+    /**
+     * Test the nodes in parallel on this pool; the predicate must be thread safe.
+     *
+     * @return the matching nodes in the order of the graph
+     */
+    public List<Node<T>> find(ForkJoinPool pool, Predicate<Node<T>> predicate) {
+        return pool.submit(() -> nodes.parallelStream().filter(predicate).collect(toList())).join();
+    }
+
+    /** Like {@link #mark(Mark)}, but in parallel on this pool; registered marks are word-wide operations anyway */
+    public int mark(ForkJoinPool pool, Mark mark) {
+        if (registeredMarks.column(mark) != null)
+            return mark(mark);
+        return pool.submit(() -> (int) nodes.parallelStream().filter(mark::mark).count()).join();
+    }
+
+    /** Like {@link #unmark(Mark)}, but in parallel on this pool; registered marks are word-wide operations anyway */
+    public int unmark(ForkJoinPool pool, Mark mark) {
+        if (registeredMarks.column(mark) != null)
+            return unmark(mark);
+        return pool.submit(() -> (int) nodes.parallelStream().filter(mark::unmark).count()).join();
+    }
+
     public List<Node<T>> remove(Predicate<Node<T>> predicate) {
         List<Node<T>> found = find(predicate);
         found.forEach(this::remove);
         return found;
     }
 
+    /**
+     * Remove the node and all links from and to it. Detaching the node costs time proportional to its links, if the
+     * graph {@link #keepIncomingLinks() keeps incoming links}, otherwise all nodes have to be searched. Removing it
+     * from the list of nodes always takes a scan of that list, as the list keeps the order of the nodes, but that only
+     * compares references.
+     */
     public boolean remove(Node<T> node) {
-        return nodes.remove(node);
+        if (!index.remove(node.getValue(), node))
+            return false;
+        version++;
+        if (persistentAdjacency != null)
+            persistentAdjacency.remove(node.getId(), node.getIncoming());
+        node.detach();
+        if (dynamicComponents != null)
+            dynamicComponents.remove(node);
+        if (changeLog != null)
+            changeLog.removed(node);
+        reachability = null;
+        removeFromNodes(node);
+        nodeIds.clear(node.getId());
+        if (topologicalOrder != null)
+            topologicalOrder.remove(node);
+        node.detachMarks();
+        return true;
+    }
+
+    /** by reference, as {@link Node#equals(Object)} compares the links, too */
+    private void removeFromNodes(Node<T> node) {
+        for (int i = nodes.size() - 1; i >= 0; i--)
+            if (nodes.get(i) == node) {
+                nodes.remove(i);
+                return;
+            }
+    }
+
+    boolean containsId(int id) {
+        return nodeIds.get(id);
+    }
+
+    /** @return a view of the nodes matching the predicate, without copying anything but a bit per node */
+    public GraphView<T> view(Predicate<Node<T>> predicate) {
+        return new GraphView<>(this, nodes.stream().filter(predicate).collect(toList()));
+    }
+
+    /** @return a view of the nodes with this mark */
+    public GraphView<T> view(Mark mark) {
+        return view(node -> node.isMarked(mark));
+    }
+
+    /** @return a view of the roots and all nodes reachable from them */
+    @SafeVarargs
+    public final GraphView<T> viewReachableFrom(Node<T>... roots) {
+        BitSet members = new BitSet();
+        List<Node<T>> reached = new ArrayList<>();
+        for (Node<T> root : roots)
+            if (!members.get(root.getId())) {
+                members.set(root.getId());
+                reached.add(root);
+            }
+        for (int i = 0; i < reached.size(); i++)
+            for (Node<T> target : reached.get(i).getLinks())
+                if (!members.get(target.getId())) {
+                    members.set(target.getId());
+                    reached.add(target);
+                }
+        return new GraphView<>(this, reached);
     }
 
     public int size() {
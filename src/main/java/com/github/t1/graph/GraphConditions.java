@@ -37,7 +37,7 @@ public class GraphConditions {
     }
 
     public static final Condition<? super Graph<String>> noMarks =
-            new Condition<>(graph -> graph.find(node -> node.isMarked(Mark.class)).isEmpty(), "no marks");
+            new Condition<>(graph -> !graph.anyMatch(node -> node.isMarked(Mark.class)), "no marks");
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public static final Condition<Node<?>> unmarked = (Condition) marked();
@@ -0,0 +1,33 @@
+package com.github.t1.graph;
+
+/**
+ * Gets notified about the algorithms running on a {@link Graph#setListener(GraphListener) graph}, e.g. to record
+ * metrics. All methods do nothing by default. The graph doesn't even measure anything while the listener is
+ * {@link #NONE}. Listeners may be called from several threads, if the graph is used from several threads.
+ *
+ * @see GraphStatistics
+ */
+public interface GraphListener {
+    GraphListener NONE = new GraphListener() {};
+
+    enum Phase {
+        STRONGLY_CONNECTED_COMPONENTS,
+        /** includes the strongly connected components, unless the graph keeps a topological order */
+        TOPOLOGICAL_SORT,
+        CONDENSE,
+        /** allocates the arrays of a {@link CompactGraph} */
+        COMPACT,
+        /** allocates a bit set per strongly connected component */
+        REACHABILITY
+    }
+
+    /** A phase is done for a graph of that size */
+    default void phaseDone(Phase phase, int nodes, int links, long nanos) {}
+
+    /**
+     * @param cycles the number of components that are cycles
+     * @param maxDepth the maximum depth of the depth first search, i.e. of the explicit stack replacing the recursion;
+     *        0 for the parallel search
+     */
+    default void stronglyConnectedComponentsFound(int components, int cycles, int maxDepth) {}
+}
@@ -0,0 +1,126 @@
+package com.github.t1.graph;
+
+import static java.util.Collections.*;
+
+import java.nio.IntBuffer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.github.t1.graph.PersistentAdjacency.Chunk;
+
+import lombok.Getter;
+
+/**
+ * An immutable view of the nodes and links of a {@link Graph#snapshot() graph} at one point in time. It shares all
+ * unchanged parts with the graph, so it's cheap to take, and as it's immutable, any number of threads can read it
+ * while the graph keeps changing. The nodes are identified by their {@link Node#getId() ids}.
+ * <p>
+ * Only the nodes, their values, and the links are included, not the marks or the link weights.
+ */
+public final class GraphSnapshot<T> {
+    /** the {@link Graph#getVersion() version} of the graph when the snapshot was taken */
+    @Getter
+    private final long version;
+    private final Chunk<T>[] chunks;
+    /** all node ids are smaller than this */
+    private final int idLimit;
+    private final int size;
+
+    GraphSnapshot(long version, Chunk<T>[] chunks, int idLimit, int size) {
+        this.version = version;
+        this.chunks = chunks;
+        this.idLimit = idLimit;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0 || id >= idLimit)
+            return false;
+        Chunk<T> chunk = chunks[id >>> PersistentAdjacency.CHUNK_BITS];
+        return chunk != null && (chunk.present & (1L << id)) != 0;
+    }
+
+    /** @return the ids of the nodes in ascending order */
+    public IntStream ids() {
+        return IntStream.range(0, idLimit).filter(this::contains);
+    }
+
+    public T value(int id) {
+        return chunk(id).values[index(id)];
+    }
+
+    public int degree(int id) {
+        return chunk(id).linkCounts[index(id)];
+    }
+
+    /** @return the id of the node the link at position <code>i</code> of the node with this id goes to */
+    public int target(int id, int i) {
+        Chunk<T> chunk = chunk(id);
+        if (i >= chunk.linkCounts[index(id)])
+            throw new IndexOutOfBoundsException("no link " + i + " of node with id " + id);
+        return chunk.links[index(id)][i];
+    }
+
+    public void forEachLink(int id, IntConsumer consumer) {
+        Chunk<T> chunk = chunk(id);
+        int[] links = chunk.links[index(id)];
+        for (int i = 0; i < chunk.linkCounts[index(id)]; i++)
+            consumer.accept(links[i]);
+    }
+
+    public boolean isLinkedTo(int from, int to) {
+        for (int i = 0; i < degree(from); i++)
+            if (target(from, i) == to)
+                return true;
+        return false;
+    }
+
+    /** @return a compact graph with the nodes as vertices in the order of their ids, e.g. to run the algorithms on */
+    public CompactGraph<T> compact() {
+        int[] ids = ids().toArray();
+        int[] vertexById = new int[idLimit];
+        for (int vertex = 0; vertex < ids.length; vertex++)
+            vertexById[ids[vertex]] = vertex;
+        int[] offsets = new int[ids.length + 1];
+        for (int vertex = 0; vertex < ids.length; vertex++)
+            offsets[vertex + 1] = offsets[vertex] + degree(ids[vertex]);
+        int[] targets = new int[offsets[ids.length]];
+        for (int vertex = 0; vertex < ids.length; vertex++)
+            for (int i = 0; i < degree(ids[vertex]); i++)
+                targets[offsets[vertex] + i] = vertexById[target(ids[vertex], i)];
+        return new CompactGraph<>(ids.length, IntBuffer.wrap(offsets), IntBuffer.wrap(targets),
+                vertex -> value(ids[vertex]), emptyMap());
+    }
+
+    private Chunk<T> chunk(int id) {
+        if (!contains(id))
+            throw new IllegalArgumentException("no node with id " + id);
+        return chunks[id >>> PersistentAdjacency.CHUNK_BITS];
+    }
+
+    private static int index(int id) {
+        return id & (PersistentAdjacency.CHUNK_SIZE - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        ids().forEach(id -> {
+            if (out.length() > 0)
+                out.append('\n');
+            out.append(value(id)).append(" -> {");
+            for (int i = 0; i < degree(id); i++)
+                out.append((i == 0) ? "" : ", ").append(value(target(id, i)));
+            out.append('}');
+        });
+        return out.toString();
+    }
+}
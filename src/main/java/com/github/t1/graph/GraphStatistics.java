@@ -0,0 +1,100 @@
+package com.github.t1.graph;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import com.github.t1.graph.GraphListener.Phase;
+
+/**
+ * A thread safe {@link GraphListener} that sums up what happened, so the getters can, e.g., be exported as gauges of
+ * a metrics library.
+ */
+public class GraphStatistics implements GraphListener {
+    private final Map<Phase, AtomicLong> counts = new EnumMap<>(Phase.class);
+    private final Map<Phase, AtomicLong> totalNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, AtomicLong> maxNanos = new EnumMap<>(Phase.class);
+    private final AtomicInteger maxNodes = new AtomicInteger();
+    private final AtomicInteger maxLinks = new AtomicInteger();
+    private final AtomicLong components = new AtomicLong();
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    public GraphStatistics() {
+        for (Phase phase : Phase.values()) {
+            counts.put(phase, new AtomicLong());
+            totalNanos.put(phase, new AtomicLong());
+            maxNanos.put(phase, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void phaseDone(Phase phase, int nodes, int links, long nanos) {
+        counts.get(phase).incrementAndGet();
+        totalNanos.get(phase).addAndGet(nanos);
+        maxNanos.get(phase).accumulateAndGet(nanos, Math::max);
+        maxNodes.accumulateAndGet(nodes, Math::max);
+        maxLinks.accumulateAndGet(links, Math::max);
+    }
+
+    @Override
+    public void stronglyConnectedComponentsFound(int components, int cycles, int maxDepth) {
+        this.components.addAndGet(components);
+        this.cycles.addAndGet(cycles);
+        this.maxDepth.accumulateAndGet(maxDepth, Math::max);
+    }
+
+    /** @return how often the phase was done */
+    public long getCount(Phase phase) {
+        return counts.get(phase).get();
+    }
+
+    public long getTotalNanos(Phase phase) {
+        return totalNanos.get(phase).get();
+    }
+
+    public long getMaxNanos(Phase phase) {
+        return maxNanos.get(phase).get();
+    }
+
+    /** @return the maximum number of nodes of the graphs in any phase */
+    public int getMaxNodes() {
+        return maxNodes.get();
+    }
+
+    /** @return the maximum number of links of the graphs in any phase */
+    public int getMaxLinks() {
+        return maxLinks.get();
+    }
+
+    /** @return the number of strongly connected components found, summed up */
+    public long getComponents() {
+        return components.get();
+    }
+
+    /** @return the number of cycles found, summed up */
+    public long getCycles() {
+        return cycles.get();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Phase phase : Phase.values())
+            if (getCount(phase) > 0)
+                out.append(phase).append(": ").append(getCount(phase)).append(" times, ")
+                        .append(NANOSECONDS.toMillis(getTotalNanos(phase))).append(" ms total, ")
+                        .append(NANOSECONDS.toMillis(getMaxNanos(phase))).append(" ms max\n");
+        return out.append("max nodes: ").append(getMaxNodes())
+                .append(", max links: ").append(getMaxLinks())
+                .append(", components: ").append(getComponents())
+                .append(", cycles: ").append(getCycles())
+                .append(", max depth: ").append(getMaxDepth())
+                .toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.t1.graph;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static java.util.Comparator.*;
+import static java.util.stream.Collectors.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A part of a {@link Graph}, e.g. the nodes with a {@link Graph#view(Mark) mark}, without copying the links: the
+ * members are selected when the view is created and sorted by id, and the links are read from the graph, skipping
+ * those that leave the view. The links are always the current links of the graph, and nodes removed from the graph are
+ * removed from the view, too. All operations take time proportional to the size of the view, not of the graph.
+ */
+public class GraphView<T> {
+    private final Graph<T> graph;
+    /** sorted by id */
+    private final List<Node<T>> members;
+    /** the ids of the members, sorted, so they can be searched and be used as index into the state of a search */
+    private final int[] ids;
+
+    GraphView(Graph<T> graph, List<Node<T>> members) {
+        this.graph = graph;
+        this.members = new ArrayList<>(members);
+        this.members.sort(comparingInt(Node::getId));
+        this.ids = this.members.stream().mapToInt(Node::getId).toArray();
+    }
+
+    /** @return the index of the node in the members, or a negative number, if it's not a member */
+    private int indexOf(Node<T> node) {
+        int index = binarySearch(ids, node.getId());
+        return (index >= 0 && members.get(index) == node && graph.containsId(node.getId())) ? index : -1;
+    }
+
+    public boolean contains(Node<T> node) {
+        return indexOf(node) >= 0;
+    }
+
+    /** @return the nodes in the view, in the order of their ids, i.e. of their creation */
+    public List<Node<T>> getNodes() {
+        return members.stream().filter(node -> graph.containsId(node.getId())).collect(toList());
+    }
+
+    public int size() {
+        return (int) members.stream().filter(node -> graph.containsId(node.getId())).count();
+    }
+
+    /** @return the links of the node to other nodes in this view */
+    public List<Node<T>> linksOf(Node<T> node) {
+        return node.getLinks().stream().filter(this::contains).collect(toList());
+    }
+
+    /** @return a view of the nodes in this view that also match the predicate */
+    public GraphView<T> view(Predicate<Node<T>> predicate) {
+        return new GraphView<>(graph, getNodes().stream().filter(predicate).collect(toList()));
+    }
+
+    /**
+     * Like {@link Graph#findStronglyConnectedComponents()}, but only nodes and links within this view count.
+     *
+     * @return each component after all components it links to
+     */
+    public List<List<Node<T>>> findStronglyConnectedComponents() {
+        List<Node<T>> nodes = getNodes();
+        int[] live = nodes.stream().mapToInt(Node::getId).toArray();
+        StronglyConnectedComponentsFinder<T> finder = new StronglyConnectedComponentsFinder<>(live);
+        nodes.forEach(finder);
+        return finder.getStronglyConnectedComponents();
+    }
+
+    /**
+     * Like {@link Graph#topologicalSort()}, but only nodes and links within this view count, and the graph is not
+     * changed.
+     *
+     * @return the nodes of this view, so every node comes before all nodes it links to
+     * @throws CyclesFoundException if there are cycles within this view
+     */
+    public List<Node<T>> topologicallySorted() {
+        List<List<Node<T>>> stronglyConnectedComponents = findStronglyConnectedComponents();
+        List<List<Node<T>>> cycles = stronglyConnectedComponents.stream().filter(Graph::isCycle).collect(toList());
+        if (!cycles.isEmpty())
+            throw new CyclesFoundException(cycles);
+        List<Node<T>> sorted = stronglyConnectedComponents.stream().map(scc -> scc.get(0)).collect(toList());
+        reverse(sorted);
+        return sorted;
+    }
+
+    /** @return can <code>to</code> be reached from <code>from</code> by following one or more links within this view */
+    public boolean isReachable(Node<T> from, Node<T> to) {
+        int index = indexOf(to);
+        return index >= 0 && reachable(from).get(index);
+    }
+
+    /**
+     * @return the nodes in this view that can be reached from this node by following one or more links within this
+     *         view, in the order of their ids
+     */
+    public List<Node<T>> reachableFrom(Node<T> from) {
+        BitSet reachable = reachable(from);
+        return reachable.stream().mapToObj(members::get).collect(toList());
+    }
+
+    /** @return the indexes of the reachable members */
+    private BitSet reachable(Node<T> from) {
+        BitSet reachable = new BitSet(members.size());
+        if (!contains(from))
+            return reachable;
+        Deque<Node<T>> pending = new ArrayDeque<>();
+        pending.add(from);
+        while (!pending.isEmpty())
+            for (Node<T> target : pending.remove().getLinks()) {
+                int index = indexOf(target);
+                if (index >= 0 && !reachable.get(index)) {
+                    reachable.set(index);
+                    pending.add(target);
+                }
+            }
+        return reachable;
+    }
+
+    @Override
+    public String toString() {
+        return getNodes().stream()
+                .map(node -> node.getValue() + " -> {" + Graph.nodeNames(linksOf(node)) + "}")
+                .collect(joining("\n"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.t1.graph;
+
+import java.util.*;
+
+/**
+ * A graph with <code>int</code> values that doesn't need any objects per node or link, e.g. for graphs with many
+ * millions of nodes identified by numeric ids. The nodes are identified by their vertex number, assigned densely in the
+ * order of creation.
+ */
+public class IntGraph extends PrimitiveGraph<Integer> {
+    private int[] values = new int[16];
+
+    @Override
+    long valueAt(int vertex) {
+        return values[vertex];
+    }
+
+    @Override
+    void storeValue(int vertex, long value) {
+        if (vertex == values.length)
+            values = Arrays.copyOf(values, vertex * 2);
+        values[vertex] = (int) value;
+    }
+
+    @Override
+    Integer boxedValueAt(int vertex) {
+        return values[vertex];
+    }
+
+    public int value(int vertex) {
+        return values[vertex];
+    }
+
+    /** @return the vertex with this value or -1 */
+    public int findNode(int value) {
+        return find(value);
+    }
+
+    /** @return the vertex with this value, created if necessary */
+    public int findOrCreateNode(int value) {
+        return findOrCreate(value);
+    }
+
+    /** Link the node with the <code>from</code> value to the node with the <code>to</code> value, creating them */
+    public void link(int from, int to) {
+        linkVertices(findOrCreate(from), findOrCreate(to));
+    }
+
+    /** @return the values of the strongly connected components, in the order of {@link CompactGraph} */
+    public List<int[]> findStronglyConnectedComponents() {
+        List<int[]> components = findStronglyConnectedComponentVertices();
+        for (int[] component : components)
+            for (int i = 0; i < component.length; i++)
+                component[i] = values[component[i]];
+        return components;
+    }
+
+    /**
+     * @return the values, so every value comes before all values it links to
+     * @throws CyclesFoundException if there are cycles
+     */
+    public int[] topologicalSort() {
+        int[] sorted = topologicallySortedVertices();
+        for (int i = 0; i < sorted.length; i++)
+            sorted[i] = values[sorted[i]];
+        return sorted;
+    }
+
+    /** @return can the node with the <code>to</code> value be reached from the one with the <code>from</code> value */
+    public boolean isReachable(int from, int to) {
+        int fromVertex = find(from);
+        int toVertex = find(to);
+        return fromVertex >= 0 && toVertex >= 0 && isReachableVertex(fromVertex, toVertex);
+    }
+}
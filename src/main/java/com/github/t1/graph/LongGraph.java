@@ -0,0 +1,79 @@
+package com.github.t1.graph;
+
+import java.util.*;
+
+/**
+ * A graph with <code>long</code> values that doesn't need any objects per node or link, e.g. for graphs with many
+ * millions of nodes identified by numeric ids. The nodes are identified by their vertex number, assigned densely in the
+ * order of creation.
+ */
+public class LongGraph extends PrimitiveGraph<Long> {
+    private long[] values = new long[16];
+
+    @Override
+    long valueAt(int vertex) {
+        return values[vertex];
+    }
+
+    @Override
+    void storeValue(int vertex, long value) {
+        if (vertex == values.length)
+            values = Arrays.copyOf(values, vertex * 2);
+        values[vertex] = value;
+    }
+
+    @Override
+    Long boxedValueAt(int vertex) {
+        return values[vertex];
+    }
+
+    public long value(int vertex) {
+        return values[vertex];
+    }
+
+    /** @return the vertex with this value or -1 */
+    public int findNode(long value) {
+        return find(value);
+    }
+
+    /** @return the vertex with this value, created if necessary */
+    public int findOrCreateNode(long value) {
+        return findOrCreate(value);
+    }
+
+    /** Link the node with the <code>from</code> value to the node with the <code>to</code> value, creating them */
+    public void link(long from, long to) {
+        linkVertices(findOrCreate(from), findOrCreate(to));
+    }
+
+    /** @return the values of the strongly connected components, in the order of {@link CompactGraph} */
+    public List<long[]> findStronglyConnectedComponents() {
+        List<long[]> components = new ArrayList<>();
+        for (int[] vertices : findStronglyConnectedComponentVertices()) {
+            long[] component = new long[vertices.length];
+            for (int i = 0; i < vertices.length; i++)
+                component[i] = values[vertices[i]];
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * @return the values, so every value comes before all values it links to
+     * @throws CyclesFoundException if there are cycles
+     */
+    public long[] topologicalSort() {
+        int[] vertices = topologicallySortedVertices();
+        long[] sorted = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++)
+            sorted[i] = values[vertices[i]];
+        return sorted;
+    }
+
+    /** @return can the node with the <code>to</code> value be reached from the one with the <code>from</code> value */
+    public boolean isReachable(long from, long to) {
+        int fromVertex = find(from);
+        int toVertex = find(to);
+        return fromVertex >= 0 && toVertex >= 0 && isReachableVertex(fromVertex, toVertex);
+    }
+}
@@ -2,28 +2,107 @@ package com.github.t1.graph;
 
 import static com.github.t1.graph.Graph.*;
 import static java.util.Arrays.*;
+import static java.util.Collections.*;
 
 import java.util.*;
 import java.util.ArrayList;
-import java.util.function.Consumer;
+import java.util.function.*;
 
-import lombok.Data;
+import lombok.*;
 
 @Data
 public class Node<T> {
-    private T value;
+    /** Dense and stable, assigned by the {@link Graph} when creating the node */
+    private final int id;
+    private final T value;
     private List<Node<T>> links = new ArrayList<>();
     private List<Mark> marks = new ArrayList<>();
+    /** The weights of the links by their index, <code>null</code> as long as all links have the default weight 1 */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private double[] weights;
+    /** <code>null</code> unless the graph {@link Graph#keepIncomingLinks() keeps incoming links} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    List<Node<T>> incoming;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final Graph<T> graph;
+    /** the marks of the graph, or, after the node was removed, an empty one */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private RegisteredMarks registeredMarks;
 
-    Node(T value) {
+    Node(int id, T value, Graph<T> graph) {
+        this.id = id;
         this.value = value;
+        this.graph = graph;
+        this.registeredMarks = graph.getRegisteredMarks();
     }
 
+    /** @throws CyclesFoundException if the graph keeps a topological order and this link would close a cycle */
     public Node<T> linkedTo(Node<T> target) {
+        return linkedTo(target, 1);
+    }
+
+    /**
+     * Link to the target with a weight, e.g. a cost or a latency, instead of the default weight 1.
+     *
+     * @throws CyclesFoundException if the graph keeps a topological order and this link would close a cycle
+     */
+    public Node<T> linkedTo(Node<T> target, double weight) {
+        graph.beforeLink(this, target);
         links.add(target);
+        if (weights == null && weight != 1) {
+            weights = new double[Math.max(links.size(), 4)];
+            fill(weights, 1);
+        }
+        if (weights != null)
+            setWeight(links.size() - 1, weight);
+        if (target.incoming != null)
+            target.incoming.add(this);
+        graph.afterLink(this, target, weight);
         return this;
     }
 
+    private void setWeight(int index, double weight) {
+        if (index >= weights.length)
+            weights = copyOf(weights, 2 * weights.length);
+        weights[index] = weight;
+    }
+
+    /** @return the weight of the link at this index in the {@link #getLinks() links} */
+    public double getWeight(int index) {
+        if (index >= links.size())
+            throw new IndexOutOfBoundsException("no link " + index + " in " + links.size() + " links");
+        return (weights == null) ? 1 : weights[index];
+    }
+
+    /** Replacing the links resets all weights to 1 */
+    public void setLinks(List<Node<T>> links) {
+        this.links = links;
+        this.weights = null;
+    }
+
+    /** Visit the links with their weights */
+    public void forEachLink(ObjDoubleConsumer<? super Node<T>> consumer) {
+        for (int i = 0; i < links.size(); i++)
+            consumer.accept(links.get(i), (weights == null) ? 1 : weights[i]);
+    }
+
+    /** Remove all links to the target; @return was it linked to the target? */
+    public boolean unlink(Node<T> target) {
+        if (!links.contains(target))
+            return false;
+        removeLinksTo(target);
+        if (target.incoming != null)
+            target.incoming.removeIf(source -> source == this);
+        graph.afterUnlink(this, target);
+        return true;
+    }
+
     @SafeVarargs
     public final boolean isLinkedTo(Node<T>... nodes) {
         return isLinkedTo(asList(nodes));
@@ -41,25 +120,119 @@ public class Node<T> {
         links.forEach(consumer);
     }
 
+    /**
+     * The nodes in the graph that link to this node, once for every link. This is fast only if the graph
+     * {@link Graph#keepIncomingLinks() keeps incoming links}, otherwise all nodes have to be searched.
+     */
+    public List<Node<T>> getIncoming() {
+        if (incoming != null)
+            return unmodifiableList(incoming);
+        List<Node<T>> found = new ArrayList<>();
+        graph.visit(node -> node.links.forEach(target -> {
+            if (target == this)
+                found.add(node);
+        }));
+        return found;
+    }
+
+    /** @see #getIncoming() */
+    public void forEachIncoming(Consumer<? super Node<T>> consumer) {
+        getIncoming().forEach(consumer);
+    }
+
+    /** Remove all links from and to this node */
+    void detach() {
+        if (incoming == null) {
+            graph.visit(node -> node.removeLinksTo(this));
+        } else {
+            for (Node<T> source : incoming)
+                source.removeLinksTo(this);
+            for (Node<T> target : links)
+                if (target.incoming != null)
+                    target.incoming.removeIf(source -> source == this);
+            incoming.clear();
+        }
+        links.clear();
+        weights = null;
+    }
+
+    /** Remove the links to the target and their weights */
+    private void removeLinksTo(Node<T> target) {
+        int kept = 0;
+        for (int i = 0; i < links.size(); i++) {
+            if (links.get(i) == target)
+                continue;
+            if (weights != null)
+                weights[kept] = weights[i];
+            links.set(kept++, links.get(i));
+        }
+        links.subList(kept, links.size()).clear();
+    }
+
     public Node<T> marked(Mark mark) {
         mark(mark);
         return this;
     }
 
+    /** @return the marks in the mark list followed by the registered marks */
+    public List<Mark> getMarks() {
+        if (registeredMarks.isEmpty())
+            return marks;
+        List<Mark> all = new ArrayList<>(marks);
+        registeredMarks.forEachMarkOf(id, all::add);
+        return all;
+    }
+
     public boolean mark(Mark mark) {
-        if (marks.contains(mark))
-            return false;
-        marks.add(mark);
+        BitSet column = registeredMarks.column(mark);
+        if (column != null) {
+            if (column.get(id))
+                return false;
+            column.set(id);
+        } else {
+            if (marks.contains(mark))
+                return false;
+            marks.add(mark);
+        }
+        graph.afterMark(this, mark, true);
         return true;
     }
 
     /** @return was it marked as this? */
     public boolean unmark(Mark mark) {
+        BitSet column = registeredMarks.column(mark);
+        boolean wasMarked;
+        if (column != null) {
+            wasMarked = column.get(id);
+            column.clear(id);
+        } else {
+            wasMarked = marks.remove(mark);
+        }
+        if (wasMarked)
+            graph.afterMark(this, mark, false);
+        return wasMarked;
+    }
+
+    /**
+     * Move the registered marks of this removed node to its mark list, so the graph only has bits for the nodes in it,
+     * and marking this node later doesn't set bits for an id that may be reused
+     */
+    void detachMarks() {
+        if (registeredMarks.isEmpty())
+            return;
+        registeredMarks.forEachMarkOf(id, marks::add);
+        registeredMarks.clear(id);
+        registeredMarks = new RegisteredMarks();
+    }
+
+    /** Remove the mark from the mark list only, without telling the graph */
+    boolean removeFromMarkList(Mark mark) {
         return marks.remove(mark);
     }
 
     public boolean isMarked(Mark mark) {
-        return marks.contains(mark);
+        BitSet column = registeredMarks.column(mark);
+        return (column != null) ? column.get(id) : marks.contains(mark);
     }
 
     public boolean isMarked(Class<? extends Mark> type) {
@@ -68,19 +241,22 @@ public class Node<T> {
 
     public <M extends Mark> Optional<M> unmark(Class<M> type) {
         Optional<M> mark = getMark(type);
-        mark.ifPresent(m -> marks.remove(m));
+        mark.ifPresent(this::unmark);
         return mark;
     }
 
     public <M extends Mark> Optional<M> getMark(Class<M> type) {
-        return marks.stream()
-                .filter(type::isInstance)
-                .findAny()
-                .map(type::cast);
+        for (int i = 0; i < marks.size(); i++)
+            if (type.isInstance(marks.get(i)))
+                return Optional.of(type.cast(marks.get(i)));
+        if (registeredMarks.isEmpty())
+            return Optional.empty();
+        return registeredMarks.getMark(id, type);
     }
 
     @Override
     public String toString() {
+        List<Mark> marks = getMarks();
         return value + (marks.isEmpty() ? "" : marks.toString()) + " -> {" + nodeNames(links) + "}";
     }
 
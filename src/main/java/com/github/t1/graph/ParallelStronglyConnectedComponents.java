@@ -0,0 +1,227 @@
+package com.github.t1.graph;
+
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The forward-backward algorithm with trimming: vertices without incoming or outgoing links within their partition are
+ * components of their own and are trimmed first; then the vertices reachable from a pivot forwards <em>and</em>
+ * backwards are its component, and the vertices only reachable forwards, only backwards, or not at all, are three
+ * independent partitions, which are processed in parallel.
+ * <p>
+ * The partition of every vertex is stored as a color. Every partition is processed by one task, which only changes
+ * the colors of its own vertices to new, unique colors, so tasks don't interfere.
+ *
+ * @see <a href="https://doi.org/10.1007/3-540-45591-4_71">Fleischer, Hendrickson, Pinar: On Identifying Strongly
+ *      Connected Components in Parallel</a>
+ */
+class ParallelStronglyConnectedComponents {
+    /** smaller partitions are not forked */
+    private static final int FORK_THRESHOLD = 1_000;
+    private static final int DONE = -1;
+
+    private final int size;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final int[] colors;
+    /** by vertex: the position of the vertex in its partition while trimming */
+    private final int[] positions;
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final Queue<int[]> components = new ConcurrentLinkedQueue<>();
+
+    ParallelStronglyConnectedComponents(CompactGraph<?> graph) {
+        this.size = graph.size();
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.reverseOffsets = new int[size + 1];
+        for (int i = 0; i < targets.limit(); i++)
+            reverseOffsets[targets.get(i) + 1]++;
+        for (int v = 0; v < size; v++)
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        int[] next = Arrays.copyOf(reverseOffsets, size);
+        this.reverseTargets = new int[targets.limit()];
+        for (int v = 0; v < size; v++)
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++)
+                reverseTargets[next[targets.get(i)]++] = v;
+        this.colors = new int[size];
+        this.positions = new int[size];
+    }
+
+    List<int[]> find(ForkJoinPool pool) {
+        int[] all = new int[size];
+        for (int v = 0; v < size; v++)
+            all[v] = v;
+        pool.invoke(new Partition(all, 0));
+        return new ArrayList<>(components);
+    }
+
+    private class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] vertices;
+        private final int color;
+
+        private Partition(int[] vertices, int color) {
+            this.vertices = vertices;
+            this.color = color;
+        }
+
+        @Override
+        protected void compute() {
+            Deque<Partition> pending = new ArrayDeque<>();
+            pending.push(this);
+            List<Partition> forked = new ArrayList<>();
+            while (!pending.isEmpty()) {
+                Partition partition = pending.pop();
+                for (Partition next : partition.split()) {
+                    if (next.vertices.length >= FORK_THRESHOLD) {
+                        next.fork();
+                        forked.add(next);
+                    } else {
+                        pending.push(next);
+                    }
+                }
+            }
+            forked.forEach(ForkJoinTask::join);
+        }
+
+        /** @return the remaining non-empty partitions */
+        private List<Partition> split() {
+            int[] remaining = trim();
+            if (remaining.length == 0)
+                return Collections.emptyList();
+            int pivot = remaining[0];
+            int forward = nextColor.getAndIncrement();
+            int backward = nextColor.getAndIncrement();
+            searchForward(pivot, forward);
+            searchBackward(pivot, forward, backward);
+            // the pivot's component is DONE now, the others have the color of their new partition
+            int[] counts = new int[4];
+            for (int v : remaining)
+                counts[index(colors[v], forward, backward)]++;
+            int[][] parts = { new int[counts[0]], new int[counts[1]], new int[counts[2]], new int[counts[3]] };
+            int[] filled = new int[4];
+            for (int v : remaining) {
+                int i = index(colors[v], forward, backward);
+                parts[i][filled[i]++] = v;
+            }
+            components.add(parts[3]);
+            List<Partition> next = new ArrayList<>(3);
+            if (parts[0].length > 0)
+                next.add(new Partition(parts[0], forward));
+            if (parts[1].length > 0)
+                next.add(new Partition(parts[1], backward));
+            if (parts[2].length > 0)
+                next.add(new Partition(parts[2], color));
+            return next;
+        }
+
+        private int index(int vertexColor, int forward, int backward) {
+            return (vertexColor == forward) ? 0 : (vertexColor == backward) ? 1 : (vertexColor == DONE) ? 3 : 2;
+        }
+
+        /**
+         * Repeatedly remove the vertices without incoming or without outgoing links within the partition; each is a
+         * component of its own.
+         *
+         * @return the vertices not trimmed
+         */
+        private int[] trim() {
+            int n = vertices.length;
+            int[] in = new int[n];
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++)
+                positions[vertices[i]] = i;
+            int[] queue = new int[n];
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < n; i++) {
+                int v = vertices[i];
+                for (int j = offsets.get(v); j < offsets.get(v + 1); j++)
+                    if (colors[targets.get(j)] == color)
+                        out[i]++;
+                for (int j = reverseOffsets[v]; j < reverseOffsets[v + 1]; j++)
+                    if (colors[reverseTargets[j]] == color)
+                        in[i]++;
+            }
+            for (int i = 0; i < n; i++) {
+                if (in[i] == 0 || out[i] == 0) {
+                    colors[vertices[i]] = DONE;
+                    queue[tail++] = vertices[i];
+                }
+            }
+            while (head < tail) {
+                int v = queue[head++];
+                components.add(new int[] { v });
+                for (int j = offsets.get(v); j < offsets.get(v + 1); j++) {
+                    int w = targets.get(j);
+                    if (colors[w] == color && --in[positions[w]] == 0) {
+                        colors[w] = DONE;
+                        queue[tail++] = w;
+                    }
+                }
+                for (int j = reverseOffsets[v]; j < reverseOffsets[v + 1]; j++) {
+                    int w = reverseTargets[j];
+                    if (colors[w] == color && --out[positions[w]] == 0) {
+                        colors[w] = DONE;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            int[] result = new int[n - tail];
+            int r = 0;
+            for (int v : vertices)
+                if (colors[v] == color)
+                    result[r++] = v;
+            return result;
+        }
+
+        /** Recolor all vertices of this partition reachable from the pivot to <code>forward</code> */
+        private void searchForward(int pivot, int forward) {
+            int[] queue = new int[vertices.length];
+            int head = 0;
+            int tail = 0;
+            colors[pivot] = forward;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int j = offsets.get(v); j < offsets.get(v + 1); j++) {
+                    int w = targets.get(j);
+                    if (colors[w] == color) {
+                        colors[w] = forward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Search backwards from the pivot: the forward reached vertices are in the pivot's component, so they are
+         * DONE; the others are recolored to <code>backward</code>.
+         */
+        private void searchBackward(int pivot, int forward, int backward) {
+            int[] queue = new int[vertices.length];
+            int head = 0;
+            int tail = 0;
+            colors[pivot] = DONE;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int j = reverseOffsets[v]; j < reverseOffsets[v + 1]; j++) {
+                    int w = reverseTargets[j];
+                    if (colors[w] == forward) {
+                        colors[w] = DONE;
+                        queue[tail++] = w;
+                    } else if (colors[w] == color) {
+                        colors[w] = backward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.t1.graph;
+
+import static java.util.stream.Collectors.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+/**
+ * <a href="https://en.wikipedia.org/wiki/Topological_sorting#Kahn's_algorithm">Kahn's algorithm</a> with atomic
+ * counters for the number of links into each node, so the nodes that become ready can be processed in parallel. Links
+ * to nodes not in the graph are ignored. The caller must have checked that there are no cycles.
+ */
+class ParallelTopologicalSort<T> {
+    private final List<Node<T>> nodes;
+    private final BitSet nodeIds;
+    /** by node id: the number of links from nodes that are not processed, yet */
+    private final AtomicIntegerArray incoming;
+
+    ParallelTopologicalSort(List<Node<T>> nodes, BitSet nodeIds, int idLimit) {
+        this.nodes = nodes;
+        this.nodeIds = nodeIds;
+        this.incoming = new AtomicIntegerArray(idLimit);
+        for (Node<T> node : nodes)
+            node.forEachLink(target -> {
+                if (nodeIds.get(target.getId()))
+                    incoming.incrementAndGet(target.getId());
+            });
+    }
+
+    private List<Node<T>> roots() {
+        return nodes.stream().filter(node -> incoming.get(node.getId()) == 0).collect(toList());
+    }
+
+    /** @return the targets of this node that have no other unprocessed links into them */
+    private List<Node<T>> release(Node<T> node) {
+        List<Node<T>> ready = new ArrayList<>();
+        node.forEachLink(target -> {
+            if (nodeIds.get(target.getId()) && incoming.decrementAndGet(target.getId()) == 0)
+                ready.add(target);
+        });
+        return ready;
+    }
+
+    List<List<Node<T>>> levels(ForkJoinPool pool) {
+        List<List<Node<T>>> levels = new ArrayList<>();
+        List<Node<T>> level = roots();
+        while (!level.isEmpty()) {
+            levels.add(level);
+            List<Node<T>> current = level;
+            level = pool.submit(() -> current.parallelStream()
+                    .flatMap(node -> release(node).stream())
+                    .collect(toList()))
+                    .join();
+        }
+        return levels;
+    }
+
+    CompletableFuture<Void> execute(Executor executor, Consumer<Node<T>> task) {
+        Execution execution = new Execution(executor, task);
+        if (execution.remaining.get() == 0)
+            execution.done.complete(null);
+        else
+            roots().forEach(execution::submit);
+        return execution.done;
+    }
+
+    private class Execution {
+        private final Executor executor;
+        private final Consumer<Node<T>> task;
+        private final AtomicInteger remaining = new AtomicInteger(nodes.size());
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        /**
+         * The nodes submitted while a work loop is running on this thread, i.e. the executor runs the tasks in the
+         * calling thread, so they are processed by the loop instead of recursing for every released node
+         */
+        private final ThreadLocal<Deque<Node<T>>> pending = new ThreadLocal<>();
+
+        private Execution(Executor executor, Consumer<Node<T>> task) {
+            this.executor = executor;
+            this.task = task;
+        }
+
+        private void submit(Node<T> node) {
+            try {
+                executor.execute(() -> run(node));
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void run(Node<T> node) {
+            Deque<Node<T>> queue = pending.get();
+            if (queue != null) {
+                queue.add(node);
+                return;
+            }
+            queue = new ArrayDeque<>();
+            pending.set(queue);
+            try {
+                for (Node<T> next = node; next != null && !done.isDone(); next = queue.poll()) {
+                    task.accept(next);
+                    release(next).forEach(this::submit);
+                    if (remaining.decrementAndGet() == 0)
+                        done.complete(null);
+                }
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            } finally {
+                pending.remove();
+            }
+        }
+    }
+}
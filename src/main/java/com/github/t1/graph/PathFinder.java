@@ -0,0 +1,174 @@
+package com.github.t1.graph;
+
+import static java.lang.Double.*;
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+
+import java.util.*;
+
+/**
+ * Path queries on the {@link Node#getWeight(int) weighted} links of a graph. The state is kept in primitive arrays
+ * indexed by the node ids.
+ */
+class PathFinder<T> {
+    private final Node<T>[] nodesById;
+    private final double[] distances;
+    private final int[] previous;
+
+    @SuppressWarnings("unchecked")
+    PathFinder(List<Node<T>> nodes, int idLimit) {
+        this.nodesById = new Node[idLimit];
+        for (Node<T> node : nodes)
+            nodesById[node.getId()] = node;
+        this.distances = new double[idLimit];
+        this.previous = new int[idLimit];
+        fill(previous, -1);
+    }
+
+    /** Breadth first search, so the length of the path is the number of links */
+    Optional<WeightedPath<T>> fewestLinks(Node<T> from, Node<T> to) {
+        int[] queue = new int[nodesById.length];
+        int head = 0, tail = 0;
+        fill(distances, POSITIVE_INFINITY);
+        distances[from.getId()] = 0;
+        queue[tail++] = from.getId();
+        while (head < tail && isInfinite(distances[to.getId()])) {
+            Node<T> node = nodesById[queue[head++]];
+            for (Node<T> target : node.getLinks()) {
+                if (isInfinite(distances[target.getId()])) {
+                    distances[target.getId()] = distances[node.getId()] + 1;
+                    previous[target.getId()] = node.getId();
+                    queue[tail++] = target.getId();
+                }
+            }
+        }
+        return path(from, to);
+    }
+
+    /**
+     * Dijkstra's algorithm with a binary heap of node ids
+     *
+     * @throws IllegalArgumentException if a link with a negative weight is reached
+     */
+    Optional<WeightedPath<T>> lightest(Node<T> from, Node<T> to) {
+        fill(distances, POSITIVE_INFINITY);
+        distances[from.getId()] = 0;
+        Heap heap = new Heap();
+        heap.push(from.getId());
+        while (!heap.isEmpty()) {
+            Node<T> node = nodesById[heap.pop()];
+            if (node == to)
+                break;
+            node.forEachLink((target, weight) -> {
+                if (weight < 0)
+                    throw new IllegalArgumentException("negative weight " + weight + " on link from " + node.getValue()
+                            + " to " + target.getValue());
+                double distance = distances[node.getId()] + weight;
+                if (distance < distances[target.getId()]) {
+                    distances[target.getId()] = distance;
+                    previous[target.getId()] = node.getId();
+                    heap.push(target.getId());
+                }
+            });
+        }
+        return path(from, to);
+    }
+
+    /** The longest path by following the nodes in topological order */
+    WeightedPath<T> longest(List<Node<T>> sorted) {
+        if (sorted.isEmpty())
+            return new WeightedPath<>(emptyList(), 0);
+        fill(distances, 0);
+        Node<T> last = sorted.get(0);
+        for (Node<T> node : sorted) {
+            if (distances[node.getId()] > distances[last.getId()])
+                last = node;
+            node.forEachLink((target, weight) -> {
+                double distance = distances[node.getId()] + weight;
+                if (distance > distances[target.getId()] || previous[target.getId()] < 0) {
+                    distances[target.getId()] = distance;
+                    previous[target.getId()] = node.getId();
+                }
+            });
+        }
+        Node<T> first = last;
+        while (previous[first.getId()] >= 0)
+            first = nodesById[previous[first.getId()]];
+        return path(first, last).get();
+    }
+
+    private Optional<WeightedPath<T>> path(Node<T> from, Node<T> to) {
+        if (from != to && previous[to.getId()] < 0)
+            return Optional.empty();
+        List<Node<T>> path = new ArrayList<>();
+        for (int id = to.getId(); id != from.getId(); id = previous[id])
+            path.add(nodesById[id]);
+        path.add(from);
+        reverse(path);
+        return Optional.of(new WeightedPath<>(path, distances[to.getId()]));
+    }
+
+    /** A binary min heap of node ids by their distance; a node that gets closer moves up in place */
+    private class Heap {
+        private int[] ids = new int[16];
+        /** the index of every node id in the heap or -1 */
+        private final int[] positions = new int[nodesById.length];
+        private int size = 0;
+
+        Heap() {
+            fill(positions, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int id) {
+            int position = positions[id];
+            if (position < 0) {
+                if (size == ids.length)
+                    ids = copyOf(ids, 2 * size);
+                position = size++;
+            }
+            up(id, position);
+        }
+
+        int pop() {
+            int top = ids[0];
+            positions[top] = -1;
+            int last = ids[--size];
+            if (size > 0)
+                down(last, 0);
+            return top;
+        }
+
+        private void up(int id, int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (distances[ids[parent]] <= distances[id])
+                    break;
+                put(ids[parent], position);
+                position = parent;
+            }
+            put(id, position);
+        }
+
+        private void down(int id, int position) {
+            while (2 * position + 1 < size) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && distances[ids[child + 1]] < distances[ids[child]])
+                    child++;
+                if (distances[id] <= distances[ids[child]])
+                    break;
+                put(ids[child], position);
+                position = child;
+            }
+            put(id, position);
+        }
+
+        private void put(int id, int position) {
+            ids[position] = id;
+            positions[id] = position;
+        }
+    }
+}
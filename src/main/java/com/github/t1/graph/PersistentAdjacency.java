@@ -0,0 +1,124 @@
+package com.github.t1.graph;
+
+import static java.util.Arrays.*;
+
+import java.util.*;
+
+/**
+ * The nodes and links of a {@link Graph} by node id, in chunks that are shared with the {@link GraphSnapshot snapshots}.
+ * Taking a snapshot only starts a new epoch: the first change after that copies the array of chunks and the chunk it
+ * changes, but not the link arrays. A new link is appended behind the link count the snapshots see, so only removing
+ * links copies a link array.
+ */
+class PersistentAdjacency<T> {
+    static final int CHUNK_BITS = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int[] NO_LINKS = new int[0];
+
+    static final class Chunk<T> {
+        /** the epoch this chunk was created in; only chunks of the current epoch may be changed */
+        private final int epoch;
+        final T[] values;
+        final int[][] links;
+        final int[] linkCounts;
+        /** a bit for every node in the graph */
+        long present;
+
+        @SuppressWarnings("unchecked")
+        private Chunk(int epoch) {
+            this.epoch = epoch;
+            this.values = (T[]) new Object[CHUNK_SIZE];
+            this.links = new int[CHUNK_SIZE][];
+            this.linkCounts = new int[CHUNK_SIZE];
+            fill(links, NO_LINKS);
+        }
+
+        private Chunk(int epoch, Chunk<T> chunk) {
+            this.epoch = epoch;
+            this.values = chunk.values.clone();
+            this.links = chunk.links.clone();
+            this.linkCounts = chunk.linkCounts.clone();
+            this.present = chunk.present;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Chunk<T>[] chunks = new Chunk[4];
+    /** the epoch the array of chunks was created in */
+    private int chunksEpoch = 0;
+    private int epoch = 0;
+    private int size = 0;
+    private int idLimit = 0;
+
+    PersistentAdjacency(List<Node<T>> nodes) {
+        for (Node<T> node : nodes)
+            add(node.getId(), node.getValue());
+        for (Node<T> node : nodes)
+            node.forEachLink(target -> link(node.getId(), target.getId()));
+    }
+
+    GraphSnapshot<T> snapshot(long version) {
+        epoch++;
+        return new GraphSnapshot<>(version, chunks, idLimit, size);
+    }
+
+    void add(int id, T value) {
+        Chunk<T> chunk = writable(id);
+        chunk.values[id & (CHUNK_SIZE - 1)] = value;
+        chunk.present |= 1L << id;
+        idLimit = Math.max(idLimit, id + 1);
+        size++;
+    }
+
+    void link(int from, int to) {
+        Chunk<T> chunk = writable(from);
+        int i = from & (CHUNK_SIZE - 1);
+        int count = chunk.linkCounts[i];
+        if (count == chunk.links[i].length)
+            chunk.links[i] = copyOf(chunk.links[i], Math.max(4, 2 * count));
+        chunk.links[i][count] = to;
+        chunk.linkCounts[i] = count + 1;
+    }
+
+    /** Remove the node and the links to it from the sources */
+    void remove(int id, Collection<Node<T>> sources) {
+        for (Node<T> source : sources)
+            removeLinks(source.getId(), id);
+        Chunk<T> chunk = writable(id);
+        int i = id & (CHUNK_SIZE - 1);
+        chunk.values[i] = null;
+        chunk.links[i] = NO_LINKS;
+        chunk.linkCounts[i] = 0;
+        chunk.present &= ~(1L << id);
+        size--;
+    }
+
+    void removeLinks(int from, int to) {
+        Chunk<T> chunk = writable(from);
+        int i = from & (CHUNK_SIZE - 1);
+        int[] links = chunk.links[i];
+        int count = chunk.linkCounts[i];
+        // a new array, as the snapshots may still see the old one
+        int[] kept = new int[count];
+        int keptCount = 0;
+        for (int j = 0; j < count; j++)
+            if (links[j] != to)
+                kept[keptCount++] = links[j];
+        chunk.links[i] = kept;
+        chunk.linkCounts[i] = keptCount;
+    }
+
+    private Chunk<T> writable(int id) {
+        int c = id >>> CHUNK_BITS;
+        if (chunksEpoch != epoch || c >= chunks.length) {
+            chunks = copyOf(chunks, Math.max(chunks.length, (c >= chunks.length) ? 2 * c + 2 : 0));
+            chunksEpoch = epoch;
+        }
+        Chunk<T> chunk = chunks[c];
+        if (chunk == null)
+            chunk = chunks[c] = new Chunk<>(epoch);
+        else if (chunk.epoch != epoch)
+            chunk = chunks[c] = new Chunk<>(epoch, chunk);
+        return chunk;
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.t1.graph;
+
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * The common part of the graphs with primitive values: the vertices are numbered densely in the order of creation; the
+ * values are stored by the subclass in a primitive array; they are indexed in an open addressing hash table that only
+ * stores the vertex, as the value can be looked up. The links are stored as two arrays of source and target vertices,
+ * and sorted into a {@link CompactGraph} when needed for the algorithms. So there are no objects per node or link.
+ */
+abstract class PrimitiveGraph<T> {
+    private static final int EMPTY = 0;
+
+    private int size = 0;
+    /** the vertex + 1 or {@link #EMPTY}; always at most half full */
+    private int[] slots = new int[16];
+    private int[] linkSources = new int[16];
+    private int[] linkTargets = new int[16];
+    private int linkCount = 0;
+    /** <code>null</code> when links or nodes have changed */
+    private CompactGraph<T> compact;
+
+    abstract long valueAt(int vertex);
+
+    abstract void storeValue(int vertex, long value);
+
+    abstract T boxedValueAt(int vertex);
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int linkCount() {
+        return linkCount;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** @return the slot with the vertex of this value or the empty slot where it would go */
+    private int slot(long value) {
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != EMPTY && valueAt(slots[slot] - 1) != value)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    int find(long value) {
+        return slots[slot(value)] - 1;
+    }
+
+    int findOrCreate(long value) {
+        int slot = slot(value);
+        if (slots[slot] != EMPTY)
+            return slots[slot] - 1;
+        int vertex = size++;
+        storeValue(vertex, value);
+        slots[slot] = vertex + 1;
+        if (size * 2 > slots.length)
+            rehash();
+        compact = null;
+        return vertex;
+    }
+
+    private void rehash() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        int mask = slots.length - 1;
+        for (int entry : old) {
+            if (entry == EMPTY)
+                continue;
+            int slot = hash(valueAt(entry - 1)) & mask;
+            while (slots[slot] != EMPTY)
+                slot = (slot + 1) & mask;
+            slots[slot] = entry;
+        }
+    }
+
+    /** Link the <code>from</code> vertex to the <code>to</code> vertex */
+    public void linkVertices(int from, int to) {
+        if (from < 0 || from >= size || to < 0 || to >= size)
+            throw new IllegalArgumentException("no vertex " + ((from < 0 || from >= size) ? from : to));
+        if (linkCount == linkSources.length) {
+            linkSources = Arrays.copyOf(linkSources, linkCount * 2);
+            linkTargets = Arrays.copyOf(linkTargets, linkCount * 2);
+        }
+        linkSources[linkCount] = from;
+        linkTargets[linkCount++] = to;
+        compact = null;
+    }
+
+    /** @return the links sorted by source vertex (keeping the order of the links of each vertex) */
+    public CompactGraph<T> compact() {
+        if (compact == null) {
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < linkCount; i++)
+                offsets[linkSources[i] + 1]++;
+            for (int v = 0; v < size; v++)
+                offsets[v + 1] += offsets[v];
+            int[] next = Arrays.copyOf(offsets, size);
+            int[] targets = new int[linkCount];
+            for (int i = 0; i < linkCount; i++)
+                targets[next[linkSources[i]]++] = linkTargets[i];
+            IntFunction<T> values = this::boxedValueAt;
+            compact = new CompactGraph<>(size, IntBuffer.wrap(offsets), IntBuffer.wrap(targets), values,
+                    Collections.emptyMap());
+        }
+        return compact;
+    }
+
+    List<int[]> findStronglyConnectedComponentVertices() {
+        return compact().findStronglyConnectedComponents();
+    }
+
+    int[] topologicallySortedVertices() {
+        return compact().topologicalSort();
+    }
+
+    public boolean isReachableVertex(int from, int to) {
+        return compact().isReachable(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return compact().toString();
+    }
+}
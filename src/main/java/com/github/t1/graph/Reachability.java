@@ -0,0 +1,104 @@
+package com.github.t1.graph;
+
+import java.util.*;
+
+/**
+ * Reachability on the strongly connected components of a graph: as all nodes in a component reach the same nodes, the
+ * set of components reachable from a component is searched on the condensation, i.e. the graph of the components.
+ * These sets are searched lazily when queried and kept in a cache that is limited to about
+ * {@value #CACHE_BITS} bits, so even the closure of a long chain, which takes one bit per pair of components, doesn't
+ * have to fit into memory. A search stops at components already in the cache.
+ */
+class Reachability<T> {
+    static final int CACHE_BITS = 1 << 26;
+
+    private final CompactGraph<T> compact;
+    /** by vertex */
+    private final int[] componentOf;
+    /** the links between the components, including links within a component, in compressed sparse rows */
+    private final int[] offsets;
+    private final int[] targets;
+    /** the components reachable by component, least recently used first */
+    private final Map<Integer, BitSet> cache;
+
+    Reachability(CompactGraph<T> compact) {
+        this.compact = compact;
+        this.componentOf = new int[compact.size()];
+        List<int[]> components = compact.findStronglyConnectedComponents();
+        for (int c = 0; c < components.size(); c++)
+            for (int vertex : components.get(c))
+                componentOf[vertex] = c;
+        this.offsets = new int[components.size() + 1];
+        this.targets = new int[compact.linkCount()];
+        int count = 0;
+        for (int c = 0; c < components.size(); c++) {
+            for (int vertex : components.get(c))
+                for (int i = 0; i < compact.degree(vertex); i++)
+                    targets[count++] = componentOf[compact.target(vertex, i)];
+            offsets[c + 1] = count;
+        }
+        int capacity = Math.max(16, CACHE_BITS / Math.max(1, components.size()));
+        this.cache = new LinkedHashMap<Integer, BitSet>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BitSet> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    boolean isReachable(Node<T> from, Node<T> to) {
+        int fromVertex = compact.vertexOf(from);
+        int toVertex = compact.vertexOf(to);
+        return fromVertex >= 0 && toVertex >= 0
+                && reachable(componentOf[fromVertex]).get(componentOf[toVertex]);
+    }
+
+    List<Node<T>> reachableFrom(Node<T> from) {
+        List<Node<T>> nodes = new ArrayList<>();
+        int fromVertex = compact.vertexOf(from);
+        if (fromVertex < 0)
+            return nodes;
+        BitSet bits = reachable(componentOf[fromVertex]);
+        for (int vertex = 0; vertex < componentOf.length; vertex++)
+            if (bits.get(componentOf[vertex]))
+                nodes.add(compact.node(vertex));
+        return nodes;
+    }
+
+    private BitSet reachable(int component) {
+        BitSet bits = cache.get(component);
+        if (bits == null) {
+            bits = search(component);
+            cache.put(component, bits);
+        }
+        return bits;
+    }
+
+    /** depth first search on the condensation, taking the components already cached as a whole */
+    private BitSet search(int component) {
+        BitSet bits = new BitSet();
+        BitSet visited = new BitSet();
+        int[] stack = new int[offsets.length];
+        int stackSize = 0;
+        stack[stackSize++] = component;
+        visited.set(component);
+        while (stackSize > 0) {
+            int c = stack[--stackSize];
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int target = targets[i];
+                bits.set(target);
+                if (visited.get(target))
+                    continue;
+                visited.set(target);
+                BitSet cached = cache.get(target);
+                if (cached != null)
+                    bits.or(cached);
+                else
+                    stack[stackSize++] = target;
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.t1.graph;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The {@link Graph#register(Mark) registered} marks of a graph, each stored as one bit per node id, so marking,
+ * checking, and unmarking all nodes are word-wide bit operations.
+ */
+class RegisteredMarks {
+    /** keeps the registration order, so the marks of a node are listed in a stable order */
+    private final Map<Mark, BitSet> columns = new LinkedHashMap<>();
+
+    boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    /** @return the bits of this mark or <code>null</code>, if it's not registered */
+    BitSet column(Mark mark) {
+        return columns.isEmpty() ? null : columns.get(mark);
+    }
+
+    void register(Mark mark, BitSet column) {
+        columns.put(mark, column);
+    }
+
+    void forEach(BiConsumer<Mark, BitSet> consumer) {
+        columns.forEach(consumer);
+    }
+
+    void forEachMarkOf(int id, Consumer<Mark> consumer) {
+        columns.forEach((mark, column) -> {
+            if (column.get(id))
+                consumer.accept(mark);
+        });
+    }
+
+    <M extends Mark> Optional<M> getMark(int id, Class<M> type) {
+        for (Map.Entry<Mark, BitSet> entry : columns.entrySet())
+            if (type.isInstance(entry.getKey()) && entry.getValue().get(id))
+                return Optional.of(type.cast(entry.getKey()));
+        return Optional.empty();
+    }
+
+    void clear(int id) {
+        columns.values().forEach(column -> column.clear(id));
+    }
+}
@@ -1,80 +1,134 @@
 package com.github.t1.graph;
 
 import static java.lang.Math.*;
+import static java.util.Arrays.*;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-import com.github.t1.graph.Mark.Index;
-
-import lombok.*;
+import lombok.Getter;
 
 /**
+ * Iterative version of Tarjan's algorithm: the recursion is replaced by an explicit path, so long chains don't
+ * overflow the call stack, and the index, low-link and on-stack state is kept in arrays by {@link Node#getId() node
+ * id}, so there are no marks to set and to clean up.
+ *
  * @see <a href="https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">Tarjan's Strongly
  *      Connected Components Algorithm</a>
  */
 class StronglyConnectedComponentsFinder<T> implements Consumer<Node<T>> {
-    @Value
-    static class Root implements Mark {
-        static int removeRoot(Node<?> node) {
-            return node.unmark(Root.class).get().getIndex();
-        }
+    private static final int UNVISITED = -1;
 
-        static int of(Node<?> node) {
-            return node.getMark(Root.class).get().getIndex();
-        }
+    @Getter
+    private final List<List<Node<T>>> stronglyConnectedComponents = new ArrayList<>();
+
+    /**
+     * only links to nodes with these sorted ids are followed, and the state is kept by their index in this array; or
+     * all links are followed, and the state is kept by node id, if <code>null</code>
+     */
+    private final int[] within;
+
+    private final int[] index;
+    private final int[] lowLink;
+    private final BitSet onStack;
+    private int nextIndex = 0;
+
+    private final Node<T>[] stack;
+    private int stackSize = 0;
+
+    /** the current depth first search path with the position of the next link to follow for each node */
+    private final Node<T>[] path;
+    private final int[] pathSlots;
+    private final int[] linkPositions;
+    private int pathSize = 0;
+    @Getter
+    private int maxDepth = 0;
 
-        int index;
+    /** @param idLimit all node ids are smaller than this */
+    StronglyConnectedComponentsFinder(int idLimit) {
+        this(idLimit, null);
     }
 
-    @Getter
-    private final List<List<Node<T>>> stronglyConnectedComponents = new ArrayList<>();
+    /**
+     * @param within only links to nodes with these ids are followed; they must be sorted, as the state is kept by their
+     *        index, so it's proportional to the number of these nodes, not to the number of nodes in the graph
+     */
+    StronglyConnectedComponentsFinder(int[] within) {
+        this(within.length, within);
+    }
+
+    @SuppressWarnings("unchecked")
+    private StronglyConnectedComponentsFinder(int size, int[] within) {
+        this.within = within;
+        this.index = new int[size];
+        this.lowLink = new int[size];
+        this.onStack = new BitSet(size);
+        this.stack = (Node<T>[]) new Node<?>[size];
+        this.path = (Node<T>[]) new Node<?>[size];
+        this.pathSlots = new int[size];
+        this.linkPositions = new int[size];
+        fill(index, UNVISITED);
+    }
 
-    private final AtomicInteger index = new AtomicInteger(0);
-    private final Stack<Node<T>> stack = new Stack<>();
+    /** @return the index of the state of the node, or a negative number, if it's not within the nodes to search */
+    private int slot(Node<T> node) {
+        return (within == null) ? node.getId() : binarySearch(within, node.getId());
+    }
 
     @Override
     public void accept(Node<T> node) {
-        if (!node.isMarked(Index.class))
-            strongConnect(node);
+        int slot = slot(node);
+        if (slot >= 0 && index[slot] == UNVISITED)
+            strongConnect(node, slot);
     }
 
-    private void strongConnect(Node<T> node) {
-        int indexValue = index.getAndIncrement();
-        node.mark(new Index(indexValue));
-        node.mark(new Root(indexValue));
-        stack.push(node);
-
-        for (Node<T> successor : node.getLinks()) {
-            if (!successor.isMarked(Index.class)) {
-                strongConnect(successor);
-                setRoot(node, Root.of(successor));
-            } else if (stack.contains(successor)) {
-                // -> it's in the current SCC
-                setRoot(node, Index.of(successor));
+    private void strongConnect(Node<T> start, int startSlot) {
+        enter(start, startSlot);
+        while (pathSize > 0) {
+            Node<T> node = path[pathSize - 1];
+            int slot = pathSlots[pathSize - 1];
+            List<Node<T>> links = node.getLinks();
+            if (linkPositions[pathSize - 1] < links.size()) {
+                Node<T> successor = links.get(linkPositions[pathSize - 1]++);
+                int successorSlot = slot(successor);
+                if (successorSlot < 0)
+                    continue;
+                if (index[successorSlot] == UNVISITED)
+                    enter(successor, successorSlot);
+                else if (onStack.get(successorSlot))
+                    // -> it's in the current SCC
+                    lowLink[slot] = min(lowLink[slot], index[successorSlot]);
+            } else {
+                pathSize--;
+                if (lowLink[slot] == index[slot])
+                    stronglyConnectedComponents.add(popSCC(node));
+                if (pathSize > 0) {
+                    int predecessorSlot = pathSlots[pathSize - 1];
+                    lowLink[predecessorSlot] = min(lowLink[predecessorSlot], lowLink[slot]);
+                }
             }
         }
-
-        if (isRoot(node))
-            stronglyConnectedComponents.add(popSCC(stack, node));
     }
 
-    private void setRoot(Node<T> node, int min) {
-        node.mark(new Root(min(Root.removeRoot(node), min)));
+    private void enter(Node<T> node, int slot) {
+        index[slot] = lowLink[slot] = nextIndex++;
+        stack[stackSize++] = node;
+        onStack.set(slot);
+        path[pathSize] = node;
+        pathSlots[pathSize] = slot;
+        linkPositions[pathSize++] = 0;
+        maxDepth = max(maxDepth, pathSize);
     }
 
-    private List<Node<T>> popSCC(Stack<Node<T>> stack, Node<T> node) {
+    private List<Node<T>> popSCC(Node<T> node) {
         List<Node<T>> scc = new ArrayList<>();
         Node<T> member;
         do {
-            member = stack.pop();
+            member = stack[--stackSize];
+            stack[stackSize] = null;
+            onStack.clear(slot(member));
             scc.add(member);
         } while (member != node);
         return scc;
     }
-
-    private boolean isRoot(Node<T> node) {
-        return Root.of(node) == Index.of(node);
-    }
 }
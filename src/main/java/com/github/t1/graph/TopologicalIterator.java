@@ -0,0 +1,52 @@
+package com.github.t1.graph;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Lazy version of <a href="https://en.wikipedia.org/wiki/Topological_sorting#Kahn's_algorithm">Kahn's algorithm</a>:
+ * counts the incoming links of every node up front, and then returns the nodes one by one as all nodes linking to them
+ * have been returned. Links to nodes not in the graph are ignored.
+ */
+class TopologicalIterator<T> implements Iterator<Node<T>> {
+    private final BitSet nodeIds;
+    private final Supplier<CyclesFoundException> cycles;
+    /** by node id: the number of links from nodes that are not returned, yet */
+    private final int[] incoming;
+    private final Deque<Node<T>> ready = new ArrayDeque<>();
+    private int remaining;
+
+    TopologicalIterator(List<Node<T>> nodes, BitSet nodeIds, int idLimit, Supplier<CyclesFoundException> cycles) {
+        this.nodeIds = nodeIds;
+        this.cycles = cycles;
+        this.incoming = new int[idLimit];
+        this.remaining = nodes.size();
+        for (Node<T> node : nodes)
+            for (Node<T> target : node.getLinks())
+                if (nodeIds.get(target.getId()))
+                    incoming[target.getId()]++;
+        for (Node<T> node : nodes)
+            if (incoming[node.getId()] == 0)
+                ready.add(node);
+    }
+
+    /** @throws CyclesFoundException if the remaining nodes are all in or behind cycles */
+    @Override
+    public boolean hasNext() {
+        if (ready.isEmpty() && remaining > 0)
+            throw cycles.get();
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public Node<T> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Node<T> node = ready.poll();
+        remaining--;
+        for (Node<T> target : node.getLinks())
+            if (nodeIds.get(target.getId()) && --incoming[target.getId()] == 0)
+                ready.add(target);
+        return node;
+    }
+}
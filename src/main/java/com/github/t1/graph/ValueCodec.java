@@ -0,0 +1,30 @@
+package com.github.t1.graph;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/** Converts node values to and from bytes, e.g. to {@link CompactGraph#write(java.nio.file.Path, ValueCodec) write} a graph */
+public interface ValueCodec<T> {
+    ValueCodec<String> STRING = of(string -> string.getBytes(UTF_8), bytes -> UTF_8.decode(bytes).toString());
+
+    static <T> ValueCodec<T> of(Function<T, byte[]> encoder, Function<ByteBuffer, T> decoder) {
+        return new ValueCodec<T>() {
+            @Override
+            public byte[] encode(T value) {
+                return encoder.apply(value);
+            }
+
+            @Override
+            public T decode(ByteBuffer bytes) {
+                return decoder.apply(bytes);
+            }
+        };
+    }
+
+    byte[] encode(T value);
+
+    /** @param bytes exactly the remaining bytes are the encoded value */
+    T decode(ByteBuffer bytes);
+}
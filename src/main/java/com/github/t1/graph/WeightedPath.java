@@ -0,0 +1,19 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.Graph.*;
+
+import java.util.List;
+
+import lombok.Value;
+
+/** A path through a graph: a list of nodes, each linking to the next, and the sum of the weights of those links */
+@Value
+public class WeightedPath<T> {
+    List<Node<T>> nodes;
+    double length;
+
+    @Override
+    public String toString() {
+        return listToString(" -> ", nodes, node -> node.getValue().toString()) + " (" + length + ")";
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+import com.github.t1.graph.Mark.StringMark;
+
+public class ChangeLogTest {
+    private static final Mark m = new StringMark("m");
+
+    private final Graph<String> graph = new Graph<>();
+    private final Graph<String> replica = new Graph<>();
+    private final ChangeLog.Replay<String> replay = new ChangeLog.Replay<>(replica, ValueCodec.STRING, m);
+
+    @Test
+    public void shouldReplayInitialState() {
+        Node<String> C = graph.createNode("C").marked(m);
+        Node<String> B = graph.createNode("B").linkedTo(C, 2.5);
+        graph.createNode("A").linkedTo(B).linkedTo(C);
+
+        replay.apply(graph.changeLog(ValueCodec.STRING).drain());
+
+        assertThat(replica).hasToString(graph.toString()).hasToString("C[m] -> {}\nB -> {C}\nA -> {B, C}");
+        assertThat(replica.findNode("B").get().getWeight(0)).isEqualTo(2.5);
+        assertThat(replica.findNode("C").get().isMarked(m)).isTrue();
+    }
+
+    @Test
+    public void shouldReplayChanges() {
+        Node<String> B = graph.createNode("B");
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        ChangeLog<String> log = graph.changeLog(ValueCodec.STRING);
+        replay.apply(log.drain());
+
+        Node<String> C = graph.createNode("C");
+        B.linkedTo(C, 3);
+        A.linkedTo(C);
+        A.unlink(B);
+        A.mark(m);
+        C.mark(new StringMark("other"));
+        replay.apply(log.drain());
+
+        assertThat(replica).hasToString("B -> {C}\nA[m] -> {C}\nC[other] -> {}");
+        assertThat(replica.findNode("B").get().getWeight(0)).isEqualTo(3);
+
+        graph.remove(C);
+        A.unmark(m);
+        replay.apply(log.drain());
+
+        assertThat(replica).hasToString(graph.toString()).hasToString("B -> {}\nA -> {}");
+    }
+
+    @Test
+    public void shouldRecordRegisteredMarks() {
+        graph.register(m);
+        graph.createNode("A");
+        graph.createNode("B");
+        ChangeLog<String> log = graph.changeLog(ValueCodec.STRING);
+
+        graph.mark(m);
+        replay.apply(log.drain());
+
+        assertThat(replica.find(m)).hasSize(2);
+    }
+
+    @Test
+    public void shouldKeepMarksWhenRegisteringAfterStart() {
+        graph.createNode("A").marked(m);
+        graph.createNode("B");
+        ChangeLog<String> log = graph.changeLog(ValueCodec.STRING);
+
+        graph.register(m);
+        replay.apply(log.drain());
+
+        assertThat(replica).hasToString(graph.toString()).hasToString("A[m] -> {}\nB -> {}");
+    }
+
+    @Test
+    public void shouldEncodeCompactly() {
+        Node<String> A = graph.createNode("A");
+        ChangeLog<String> log = graph.changeLog(ValueCodec.STRING);
+        log.drain();
+
+        A.linkedTo(A);
+
+        assertThat(log.drain()).containsExactly(2, 0, 0);
+        assertThat(log.drain()).isEmpty();
+    }
+
+    @Test
+    public void shouldFailToStartTwice() {
+        graph.changeLog(ValueCodec.STRING);
+
+        assertThatThrownBy(() -> graph.changeLog(ValueCodec.STRING))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("the change log has already been started");
+    }
+
+    @Test
+    public void shouldFailToReplayUnknownNode() {
+        assertThatThrownBy(() -> replay.apply(new byte[] { 2, 5, 0 }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("no node with id 5");
+    }
+
+    @Test
+    public void shouldFailToReplayRemovingUnknownNode() {
+        assertThatThrownBy(() -> replay.apply(new byte[] { 1, 5 }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("no node with id 5");
+    }
+
+    @Test
+    public void shouldFailToReplayTooLongVarint() {
+        byte more = (byte) 0x80;
+
+        assertThatThrownBy(() -> replay.apply(new byte[] { 2, more, more, more, more, more, 0 }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("varint longer than 5 bytes");
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.file.*;
+
+import java.util.*;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.t1.graph.Mark.StringMark;
+
+public class CompactGraphFileTest {
+    private enum Color implements Mark {
+        RED, GREEN
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Graph<String> graph = new Graph<>();
+
+    private CompactGraph<String> writeAndLoad(Mark... marks) throws IOException {
+        Path path = folder.newFile().toPath();
+        graph.compact().write(path, ValueCodec.STRING);
+        return CompactGraph.load(path, ValueCodec.STRING, marks);
+    }
+
+    @Test
+    public void shouldWriteAndLoadEmptyGraph() throws IOException {
+        CompactGraph<String> loaded = writeAndLoad();
+
+        assertThat(loaded.size()).isEqualTo(0);
+        assertThat(loaded).hasToString("");
+    }
+
+    @Test
+    public void shouldWriteAndLoadGraph() throws IOException {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("Bé").linkedTo(C);
+        graph.createNode("A").linkedTo(B).linkedTo(C);
+
+        CompactGraph<String> loaded = writeAndLoad();
+
+        assertThat(loaded.size()).isEqualTo(3);
+        assertThat(loaded.linkCount()).isEqualTo(3);
+        assertThat(loaded).hasToString("C -> {}\nBé -> {C}\nA -> {Bé, C}");
+        assertThat(loaded.vertexOf("A")).isEqualTo(2);
+        assertThat(loaded.isReachable(2, 0)).isTrue();
+        assertThat(loaded.nodes(loaded.topologicalSort())).extracting(Node::getValue).containsExactly("A", "Bé", "C");
+    }
+
+    @Test
+    public void shouldFindElementaryCyclesOfLoadedGraph() throws IOException {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        graph.createNode("A").linkedTo(B);
+        C.linkedTo(B);
+        CompactGraph<String> loaded = writeAndLoad();
+
+        Throwable throwable = catchThrowable(loaded::topologicalSort);
+
+        assertThat(throwable).isInstanceOf(CyclesFoundException.class);
+        assertThat(((CyclesFoundException) throwable).elementaryCycles(10, 10)
+                .flatMap(List::stream).map(node -> (String) node.getValue()))
+                .containsExactlyInAnyOrder("B", "C");
+    }
+
+    @Test
+    public void shouldWriteAndLoadRegisteredMarks() throws IOException {
+        graph.register(Color.RED);
+        graph.register(new StringMark("m"));
+        for (int i = 0; i < 100; i++)
+            graph.createNode(Integer.toString(i)).marked((i % 3 == 0) ? Color.RED : new StringMark("m"));
+
+        CompactGraph<String> loaded = writeAndLoad(Color.RED);
+
+        assertThat(loaded.getMarks()).containsExactly(Color.RED, new StringMark("m"));
+        assertThat(loaded.isMarked(99, Color.RED)).isTrue();
+        assertThat(loaded.isMarked(98, Color.RED)).isFalse();
+        assertThat(loaded.isMarked(98, new StringMark("m"))).isTrue();
+        assertThat(loaded.isMarked(98, Color.GREEN)).isFalse();
+    }
+
+    @Test
+    public void shouldReportCyclesOfLoadedGraph() throws IOException {
+        Node<String> B = graph.createNode("B");
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        B.linkedTo(A);
+
+        CompactGraph<String> loaded = writeAndLoad();
+        Throwable throwable = catchThrowable(loaded::topologicalSort);
+
+        assertThat(throwable).hasMessage("found 1 cycle(s) in graph:\n  A -> B");
+    }
+
+    @Test
+    public void shouldFailToLoadOtherFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "not a graph at all".getBytes());
+
+        Throwable throwable = catchThrowable(() -> CompactGraph.load(path, ValueCodec.STRING));
+
+        assertThat(throwable).isInstanceOf(IOException.class).hasMessage("not a graph file: " + path);
+    }
+
+    @Test
+    public void shouldFailToLoadFileWithTooManyNodes() throws IOException {
+        graph.createNode("A");
+        Path path = folder.newFile().toPath();
+        graph.compact().write(path, ValueCodec.STRING);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(8, Integer.MAX_VALUE);
+        Files.write(path, bytes);
+
+        Throwable throwable = catchThrowable(() -> CompactGraph.load(path, ValueCodec.STRING));
+
+        assertThat(throwable).isInstanceOf(IOException.class).hasMessage("not a graph file: " + path);
+    }
+
+    @Test
+    public void shouldFailToLoadFileWithLinkToUnknownVertex() throws IOException {
+        graph.createNode("A").linkedTo(graph.createNode("B"));
+        Path path = folder.newFile().toPath();
+        graph.compact().write(path, ValueCodec.STRING);
+        byte[] bytes = Files.readAllBytes(path);
+        // the target follows the header and the three offsets
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(9 * Integer.BYTES, 2);
+        Files.write(path, bytes);
+
+        Throwable throwable = catchThrowable(() -> CompactGraph.load(path, ValueCodec.STRING));
+
+        assertThat(throwable).isInstanceOf(IOException.class).hasMessage("not a graph file: " + path);
+    }
+
+    @Test
+    public void shouldFailToLoadTruncatedFile() throws IOException {
+        graph.register(new StringMark("m"));
+        graph.createNode("A").linkedTo(graph.createNode("B")).marked(new StringMark("m"));
+        Path path = folder.newFile().toPath();
+        graph.compact().write(path, ValueCodec.STRING);
+        byte[] bytes = Files.readAllBytes(path);
+
+        for (int length : new int[] { 20, 30, 50, 60, 70, bytes.length - 1 }) {
+            Files.write(path, Arrays.copyOf(bytes, length));
+
+            Throwable throwable = catchThrowable(() -> CompactGraph.load(path, ValueCodec.STRING));
+
+            assertThat(throwable).as("length " + length)
+                    .isInstanceOf(IOException.class).hasMessage("not a graph file: " + path);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class CompactGraphTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldAssignDenseIds() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+
+        assertThat(A.getId()).isEqualTo(0);
+        assertThat(B.getId()).isEqualTo(1);
+        assertThat(C.getId()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCompactEmptyGraph() {
+        CompactGraph<String> compact = graph.compact();
+
+        assertThat(compact.size()).isEqualTo(0);
+        assertThat(compact.linkCount()).isEqualTo(0);
+        assertThat(compact.topologicalSort()).isEmpty();
+        assertThat(compact).hasToString("");
+    }
+
+    @Test
+    public void shouldCompactLinks() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+        A.linkedTo(B).linkedTo(C);
+        C.linkedTo(A);
+
+        CompactGraph<String> compact = graph.compact();
+
+        assertThat(compact.size()).isEqualTo(3);
+        assertThat(compact.linkCount()).isEqualTo(3);
+        assertThat(compact.degree(0)).isEqualTo(2);
+        assertThat(compact.target(0, 1)).isEqualTo(2);
+        assertThat(compact.isLinkedTo(2, 0)).isTrue();
+        assertThat(compact.isLinkedTo(1, 0)).isFalse();
+        assertThat(compact).hasToString(graph.toString());
+    }
+
+    @Test
+    public void shouldNotChangeWithGraph() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        CompactGraph<String> compact = graph.compact();
+
+        A.linkedTo(B);
+        graph.createNode("C");
+
+        assertThat(compact).hasToString("A -> {}\nB -> {}");
+    }
+
+    @Test
+    public void shouldDropLinksToRemovedNodes() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+        A.linkedTo(B).linkedTo(C);
+        graph.remove(B);
+
+        CompactGraph<String> compact = graph.compact();
+
+        assertThat(compact).hasToString("A -> {C}\nC -> {}");
+        assertThat(compact.vertexOf(B)).isEqualTo(-1);
+        assertThat(compact.vertexOf(C)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFindSameStronglyConnectedComponentsAsGraph() {
+        Node<String> F = graph.createNode("F");
+        Node<String> E = graph.createNode("E").linkedTo(F);
+        Node<String> D = graph.createNode("D").linkedTo(E);
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        graph.createNode("A").linkedTo(B);
+        C.linkedTo(B);
+        E.linkedTo(D);
+        CompactGraph<String> compact = graph.compact();
+
+        List<int[]> components = compact.findStronglyConnectedComponents();
+
+        assertThat(components).hasSize(4);
+        List<List<Node<String>>> expected = graph.findStronglyConnectedComponents();
+        for (int i = 0; i < components.size(); i++)
+            assertThat(compact.nodes(components.get(i))).isEqualTo(expected.get(i));
+    }
+
+    @Test
+    public void shouldSortTopologically() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        CompactGraph<String> compact = graph.compact();
+
+        int[] sorted = compact.topologicalSort();
+
+        assertThat(compact.nodes(sorted)).containsExactly(A, B, C);
+    }
+
+    @Test
+    public void shouldFindCycleWhenSorting() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(A);
+
+        Throwable throwable = catchThrowable(() -> graph.compact().topologicalSort());
+
+        assertThat(throwable).has(cycle(B, A, C));
+    }
+
+    @Test
+    public void shouldFindReachable() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+        graph.createNode("D").linkedTo(A);
+        A.linkedTo(B);
+        B.linkedTo(C);
+        CompactGraph<String> compact = graph.compact();
+
+        assertThat(compact.isReachable(0, 2)).isTrue();
+        assertThat(compact.isReachable(2, 0)).isFalse();
+        assertThat(compact.isReachable(0, 0)).isFalse();
+        assertThat(compact.reachableFrom(3)).hasToString("{0, 1, 2}");
+    }
+
+    private enum Color implements Mark {
+        RED
+    }
+
+    @Test
+    public void shouldCopyOffHeap() {
+        graph.register(Color.RED);
+        Node<String> C = graph.createNode("C").marked(Color.RED);
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(C);
+        CompactGraph<String> compact = graph.compact();
+
+        CompactGraph<String> offHeap = compact.offHeap();
+
+        assertThat(compact.isDirect()).isFalse();
+        assertThat(offHeap.isDirect()).isTrue();
+        assertThat(offHeap).hasToString(compact.toString());
+        assertThat(offHeap.isMarked(0, Color.RED)).isTrue();
+        assertThat(offHeap.vertexOf(B)).isEqualTo(1);
+        assertThat(offHeap.nodes(offHeap.topologicalSort())).containsExactly(A, B, C);
+        assertThat(offHeap.find(vertex -> offHeap.degree(vertex) > 0)).containsExactly(1, 2);
+        List<String> visited = new ArrayList<>();
+        offHeap.forEachLink(2, target -> visited.add(offHeap.value(target)));
+        assertThat(visited).containsExactly("B", "C");
+    }
+}
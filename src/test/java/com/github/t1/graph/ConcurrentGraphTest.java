@@ -0,0 +1,84 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+import com.github.t1.graph.Mark.StringMark;
+
+public class ConcurrentGraphTest {
+    private final ConcurrentGraph<String> graph = new ConcurrentGraph<>();
+
+    @Test
+    public void shouldBuildGraph() {
+        int A = graph.findOrCreateNode("A");
+        int B = graph.findOrCreateNode("B");
+        graph.link(A, B);
+        graph.link("B", "C");
+        graph.mark(B, new StringMark("m"));
+
+        Graph<String> snapshot = graph.snapshot();
+
+        assertThat(graph.findOrCreateNode("A")).isEqualTo(A);
+        assertThat(graph.findNode("C")).hasValue(2);
+        assertThat(graph.findNode("D")).isEmpty();
+        assertThat(graph.getValue(B)).isEqualTo("B");
+        assertThat(graph.isMarked(B, new StringMark("m"))).isTrue();
+        assertThat(graph.size()).isEqualTo(3);
+        assertThat(snapshot).hasToString("A -> {B}\nB[m] -> {C}\nC -> {}");
+        assertThat(snapshot.findNode("B").get().getId()).isEqualTo(B);
+    }
+
+    @Test
+    public void shouldNotChangeSnapshot() {
+        graph.link("A", "B");
+        Graph<String> snapshot = graph.snapshot();
+
+        graph.link("B", "A");
+
+        assertThat(snapshot).hasToString("A -> {B}\nB -> {}");
+        Graph<String> next = graph.snapshot();
+        assertThat(catchThrowable(next::topologicalSort))
+                .has(cycle(next.findNode("B").get(), next.findNode("A").get()));
+    }
+
+    @Test
+    public void shouldFailToLinkUnknownNode() {
+        int A = graph.findOrCreateNode("A");
+
+        Throwable throwable = catchThrowable(() -> graph.link(A, 1));
+
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class).hasMessage("no node with id 1");
+    }
+
+    @Test
+    public void shouldBuildGraphConcurrently() throws Exception {
+        int threads = 8;
+        int count = 40_000; // more than two chunks
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    int value = (i * 31 + offset) % count;
+                    graph.link(Integer.toString(value), Integer.toString((value + 1) % count));
+                }
+            }));
+        }
+        for (Future<?> future : futures)
+            future.get(30, SECONDS);
+        executor.shutdown();
+
+        Graph<String> snapshot = graph.snapshot();
+
+        assertThat(snapshot.size()).isEqualTo(count);
+        assertThat(snapshot.compact().linkCount()).isEqualTo(threads * count);
+        assertThat(snapshot.findStronglyConnectedComponents()).hasSize(1);
+    }
+}
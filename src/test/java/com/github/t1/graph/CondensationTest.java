@@ -0,0 +1,49 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class CondensationTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldCondenseEmptyGraph() {
+        assertThat(graph.condense()).is(empty);
+    }
+
+    @Test
+    public void shouldCondenseAcyclicGraph() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        graph.createNode("A").linkedTo(B).linkedTo(C);
+
+        Graph<Component<String>> condensed = graph.condense();
+
+        assertThat(condensed).hasToString("[A] -> {[B], [C]}\n[B] -> {[C]}\n[C] -> {}");
+        assertThat(condensed.getNodes()).noneMatch(node -> node.getValue().isCycle());
+    }
+
+    @Test
+    public void shouldCondenseCyclesWithDeduplicatedLinks() {
+        Node<String> F = graph.createNode("F");
+        Node<String> E = graph.createNode("E").linkedTo(F);
+        Node<String> D = graph.createNode("D").linkedTo(E);
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(C).linkedTo(D);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(A);
+        E.linkedTo(D);
+        F.linkedTo(F);
+
+        Graph<Component<String>> condensed = graph.condense();
+
+        assertThat(condensed).hasToString("[B, A, C] -> {[D, E]}\n[D, E] -> {[F]}\n[F] -> {}");
+        assertThat(condensed.getNodes()).allMatch(node -> node.getValue().isCycle());
+        assertThat(condensed.getNodes().get(1).getValue().getIndex()).isEqualTo(1);
+        assertThat(condensed.getNodes().get(2).getValue().getNodes()).containsExactly(F);
+        condensed.topologicalSort();
+        assertThat(condensed.getNodes().get(0).getValue().getNodes()).containsExactly(B, A, C);
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.t1.graph;
+
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class DynamicComponentsTest {
+    private final Graph<String> graph = new Graph<>();
+
+    private final Node<String> D = graph.createNode("D");
+    private final Node<String> C = graph.createNode("C").linkedTo(D);
+    private final Node<String> B = graph.createNode("B").linkedTo(C);
+    private final Node<String> A = graph.createNode("A").linkedTo(B);
+
+    @Test
+    public void shouldFindSingleNodeComponents() {
+        assertThat(graph.componentOf(A)).containsExactly(A);
+        assertThat(graph.isInCycle(A)).isFalse();
+    }
+
+    @Test
+    public void shouldMergeWhenClosingCycle() {
+        graph.componentOf(A);
+
+        D.linkedTo(B);
+
+        assertThat(graph.componentOf(B)).containsExactlyInAnyOrder(B, C, D);
+        assertThat(graph.componentOf(D)).containsExactlyElementsOf(graph.componentOf(B));
+        assertThat(graph.isInCycle(C)).isTrue();
+        assertThat(graph.componentOf(A)).containsExactly(A);
+        assertThat(graph.isInCycle(A)).isFalse();
+    }
+
+    @Test
+    public void shouldMergeComponentsWhenClosingBiggerCycle() {
+        graph.componentOf(A);
+        C.linkedTo(B);
+
+        D.linkedTo(A);
+
+        assertThat(graph.componentOf(A)).containsExactlyInAnyOrder(A, B, C, D);
+    }
+
+    @Test
+    public void shouldSplitWhenUnlinking() {
+        D.linkedTo(A);
+        C.linkedTo(B);
+        assertThat(graph.componentOf(A)).hasSize(4);
+
+        assertThat(D.unlink(A)).isTrue();
+
+        assertThat(graph.componentOf(B)).containsExactlyInAnyOrder(B, C);
+        assertThat(graph.componentOf(A)).containsExactly(A);
+        assertThat(graph.componentOf(D)).containsExactly(D);
+        assertThat(D.unlink(A)).isFalse();
+    }
+
+    @Test
+    public void shouldTrackSelfLinks() {
+        graph.componentOf(A);
+
+        A.linkedTo(A);
+        assertThat(graph.isInCycle(A)).isTrue();
+
+        A.unlink(A);
+        assertThat(graph.isInCycle(A)).isFalse();
+    }
+
+    @Test
+    public void shouldSplitWhenRemovingNode() {
+        D.linkedTo(A);
+        graph.componentOf(A);
+        Node<String> E = graph.createNode("E").linkedTo(B);
+        B.linkedTo(E);
+
+        graph.remove(C);
+
+        assertThat(graph.componentOf(B)).containsExactlyInAnyOrder(B, E);
+        assertThat(graph.componentOf(A)).containsExactly(A);
+        assertThat(graph.componentOf(D)).containsExactly(D);
+        assertThatThrownBy(() -> graph.componentOf(C))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("node C is not in the graph");
+    }
+
+    @Test
+    public void shouldMatchFullSearchAfterRandomChanges() {
+        Random random = new Random(42);
+        List<Node<String>> nodes = new ArrayList<>(graph.getNodes());
+        for (int i = 0; i < 50; i++)
+            nodes.add(graph.createNode("N" + i));
+        graph.componentOf(A);
+
+        for (int i = 0; i < 500; i++) {
+            Node<String> from = nodes.get(random.nextInt(nodes.size()));
+            Node<String> to = nodes.get(random.nextInt(nodes.size()));
+            if (random.nextInt(3) == 0)
+                from.unlink(to);
+            else
+                from.linkedTo(to);
+            if (i % 50 == 0)
+                assertSameComponents();
+        }
+        assertSameComponents();
+    }
+
+    @Test
+    public void shouldMatchFullSearchAfterRandomRemovals() {
+        Random random = new Random(42);
+        List<Node<String>> nodes = new ArrayList<>(graph.getNodes());
+        graph.componentOf(A);
+
+        for (int i = 0; i < 500; i++) {
+            if (random.nextInt(10) == 0 && nodes.size() > 10)
+                graph.remove(nodes.remove(random.nextInt(nodes.size())));
+            else if (random.nextInt(5) == 0)
+                nodes.add(graph.createNode("N" + i));
+            else
+                nodes.get(random.nextInt(nodes.size())).linkedTo(nodes.get(random.nextInt(nodes.size())));
+            if (i % 50 == 0)
+                assertSameComponents();
+        }
+        assertSameComponents();
+    }
+
+    @Test
+    public void shouldLinkLongChainsWithoutSearchingThem() {
+        int count = 20_000;
+        graph.componentOf(A);
+        Node<String> forward = A;
+        Node<String> backward = D;
+        for (int i = 0; i < count; i++) {
+            forward = graph.createNode("F" + i).linkedTo(forward);
+            Node<String> next = graph.createNode("B" + i);
+            backward.linkedTo(next);
+            backward = next;
+        }
+
+        backward.linkedTo(forward);
+
+        assertThat(graph.componentOf(A)).hasSize(4 + 2 * count);
+    }
+
+    private void assertSameComponents() {
+        for (List<Node<String>> component : graph.findStronglyConnectedComponents())
+            for (Node<String> node : component)
+                assertThat(values(graph.componentOf(node))).isEqualTo(values(component));
+    }
+
+    private static Set<String> values(List<Node<String>> nodes) {
+        return nodes.stream().map(Node::getValue).collect(toSet());
+    }
+}
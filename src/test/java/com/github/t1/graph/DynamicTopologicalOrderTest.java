@@ -0,0 +1,143 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class DynamicTopologicalOrderTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldKeepOrderOfForwardLinks() {
+        graph.keepTopologicalOrder();
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+        A.linkedTo(B);
+        B.linkedTo(C);
+
+        graph.topologicalSort();
+
+        assertThat(graph).has(nodes(A, B, C));
+    }
+
+    @Test
+    public void shouldReorderOnBackwardLink() {
+        graph.keepTopologicalOrder();
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B");
+        Node<String> A = graph.createNode("A");
+        Node<String> D = graph.createNode("D");
+        B.linkedTo(C);
+        A.linkedTo(B);
+
+        graph.topologicalSort();
+
+        assertThat(graph).has(nodes(A, B, C, D));
+    }
+
+    @Test
+    public void shouldStartWithSortedExistingNodes() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        graph.keepTopologicalOrder();
+        Node<String> D = graph.createNode("D");
+        D.linkedTo(A);
+
+        graph.topologicalSort();
+
+        assertThat(graph).has(nodes(D, A, B, C));
+    }
+
+    @Test
+    public void shouldKeepOrderWhileRemovingMostNodes() {
+        graph.keepTopologicalOrder();
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        for (int i = 0; i < 100; i++)
+            graph.remove(graph.createNode("N" + i));
+        Node<String> C = graph.createNode("C");
+        B.linkedTo(A);
+        C.linkedTo(B);
+
+        graph.topologicalSort();
+
+        assertThat(graph).has(nodes(C, B, A));
+    }
+
+    @Test
+    public void shouldFailToKeepOrderOfCyclicGraph() {
+        Node<String> A = graph.createNode("A");
+        A.linkedTo(A);
+
+        Throwable throwable = catchThrowable(graph::keepTopologicalOrder);
+
+        assertThat(throwable).has(cycle(A));
+    }
+
+    @Test
+    public void shouldRejectLinkToSelf() {
+        graph.keepTopologicalOrder();
+        Node<String> A = graph.createNode("A");
+
+        Throwable throwable = catchThrowable(() -> A.linkedTo(A));
+
+        assertThat(throwable).has(cycle(A));
+        assertThat(A).has(noLinks);
+    }
+
+    @Test
+    public void shouldRejectLinkClosingCycle() {
+        graph.keepTopologicalOrder();
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+        Node<String> D = graph.createNode("D");
+        A.linkedTo(B);
+        B.linkedTo(D).linkedTo(C);
+
+        Throwable throwable = catchThrowable(() -> C.linkedTo(A));
+
+        assertThat(throwable)
+                .has(cycle(C, A, B))
+                .hasMessage("found 1 cycle(s) in graph:\n  C -> A -> B");
+        assertThat(C).has(noLinks);
+        graph.topologicalSort();
+        assertThat(graph).has(nodes(A, B, C, D));
+    }
+
+    @Test
+    public void shouldKeepOrderAfterRemovingNode() {
+        graph.keepTopologicalOrder();
+        Node<String> B = graph.createNode("B");
+        Node<String> X = graph.createNode("X");
+        Node<String> A = graph.createNode("A");
+        graph.remove(X);
+        A.linkedTo(B);
+        Node<String> C = graph.createNode("C");
+        B.linkedTo(C);
+
+        graph.topologicalSort();
+
+        assertThat(graph).has(nodes(A, B, C));
+    }
+
+    @Test
+    public void shouldKeepLongChainOrder() {
+        graph.keepTopologicalOrder();
+        int count = 10_000;
+        Node<String> previous = graph.createNode("0");
+        for (int i = 1; i < count; i++) {
+            Node<String> node = graph.createNode(Integer.toString(i));
+            node.linkedTo(previous);
+            previous = node;
+        }
+
+        graph.topologicalSort();
+
+        assertThat(graph.getNodes().get(0).getValue()).isEqualTo(Integer.toString(count - 1));
+        assertThat(graph.getNodes().get(count - 1).getValue()).isEqualTo("0");
+    }
+}
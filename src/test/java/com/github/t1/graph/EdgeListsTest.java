@@ -0,0 +1,79 @@
+package com.github.t1.graph;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.stream.*;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+public class EdgeListsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String... lines) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, Arrays.asList(lines), UTF_8);
+        return path;
+    }
+
+    @Test
+    public void shouldLoadLinksFromStream() {
+        Graph<String> graph = new Graph<>();
+        graph.createNode("A");
+
+        int count = graph.load(Stream.of(
+                new SimpleImmutableEntry<>("A", "B"),
+                new SimpleImmutableEntry<>("B", "C"),
+                new SimpleImmutableEntry<>("A", "C")));
+
+        assertThat(count).isEqualTo(3);
+        assertThat(graph).hasToString("A -> {B, C}\nB -> {C}\nC -> {}");
+    }
+
+    @Test
+    public void shouldLoadCsvFile() throws IOException {
+        Path path = write("# source,target", "A,B", "", "B,C,D", "A,C");
+
+        Graph<String> graph = EdgeLists.load(path, EdgeLists.CSV);
+
+        assertThat(graph).hasToString("A -> {B, C}\nB -> {C,D}\nC,D -> {}\nC -> {}");
+    }
+
+    @Test
+    public void shouldReadTsvFile() throws IOException {
+        Path path = write("A\tB", "B\tC");
+
+        List<Map.Entry<String, String>> links;
+        try (Stream<Map.Entry<String, String>> stream = EdgeLists.read(path, EdgeLists.TSV)) {
+            links = stream.collect(Collectors.toList());
+        }
+
+        assertThat(links).containsExactly(new SimpleImmutableEntry<>("A", "B"), new SimpleImmutableEntry<>("B", "C"));
+    }
+
+    @Test
+    public void shouldLoadBigFileInParallelInOrder() throws IOException {
+        int count = 100_000;
+        Path path = write(IntStream.range(0, count).mapToObj(i -> i + "," + (i + 1)).toArray(String[]::new));
+
+        Graph<String> graph = EdgeLists.load(path, EdgeLists.CSV);
+
+        assertThat(graph.size()).isEqualTo(count + 1);
+        for (int i = 0; i < count; i++)
+            assertThat(graph.getNodes().get(i).getValue()).isEqualTo(Integer.toString(i));
+    }
+
+    @Test
+    public void shouldFailToParseLineWithoutDelimiter() {
+        Throwable throwable = catchThrowable(() -> EdgeLists.parse("A B", EdgeLists.CSV));
+
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("no delimiter ',' in edge list line: A B");
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.Graph.*;
+import static java.util.Arrays.*;
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class ElementaryCyclesTest {
+    private final Graph<String> graph = new Graph<>();
+
+    private CyclesFoundException cyclesFound() {
+        Throwable throwable = catchThrowable(graph::topologicalSort);
+        assertThat(throwable).isInstanceOf(CyclesFoundException.class);
+        return (CyclesFoundException) throwable;
+    }
+
+    private List<String> cycles(int maxCount, int maxLength) {
+        return cyclesFound().elementaryCycles(maxCount, maxLength)
+                .map(cycle -> listToString(" -> ", cycle, node -> node.getValue().toString()))
+                .collect(toList());
+    }
+
+    private void complete(int size) {
+        for (int i = 0; i < size; i++)
+            graph.createNode("N" + i);
+        for (Node<String> from : graph.getNodes())
+            for (Node<String> to : graph.getNodes())
+                if (from != to)
+                    from.linkedTo(to);
+    }
+
+    @Test
+    public void shouldFindCyclesWithinComponent() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(A);
+        B.linkedTo(A);
+
+        assertThat(cycles(10, 10)).containsExactly("B -> C -> A", "B -> A");
+    }
+
+    @Test
+    public void shouldFindSelfLinksAndSeparateComponents() {
+        Node<String> F = graph.createNode("F");
+        F.linkedTo(F);
+        Node<String> E = graph.createNode("E");
+        Node<String> D = graph.createNode("D").linkedTo(E);
+        E.linkedTo(D).linkedTo(F);
+
+        assertThat(cycles(10, 10)).containsExactlyInAnyOrder("F", "D -> E");
+    }
+
+    @Test
+    public void shouldFindSelfLinkWithinBiggerComponentOnce() {
+        Node<String> B = graph.createNode("B");
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        // A is the first node of the component
+        A.linkedTo(A);
+        B.linkedTo(A);
+
+        CyclesFoundException exception = cyclesFound();
+
+        assertThat(exception.getCycles()).hasSize(1);
+        assertThat(exception).hasMessage("found 1 cycle(s) in graph:\n  A -> B");
+        assertThat(cycles(10, 10)).containsExactlyInAnyOrder("A -> B", "A");
+    }
+
+    @Test
+    public void shouldFindAllCyclesOfCompleteGraph() {
+        complete(4);
+
+        assertThat(cycles(100, 4)).hasSize(20).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void shouldSkipLongCycles() {
+        complete(4);
+
+        assertThat(cycles(100, 3)).hasSize(14).allMatch(cycle -> cycle.split(" -> ").length <= 3);
+        assertThat(cycles(100, 2)).hasSize(6);
+    }
+
+    @Test
+    public void shouldStopAfterMaxCount() {
+        complete(20);
+
+        assertThat(cycles(5, 20)).hasSize(5);
+    }
+
+    @Test
+    public void shouldSummarizeBigComponentInMessage() {
+        complete(12);
+
+        assertThat(cyclesFound()).hasMessage("found 1 cycle(s) in graph:\n"
+                + "  N11 -> N10 -> N9 -> N8 -> N7 -> N6 -> N5 -> N4 -> N3 -> N2 -> ... (12 nodes)");
+    }
+
+    @Test
+    public void shouldSummarizeManyComponentsInMessage() {
+        for (int i = 0; i < 12; i++)
+            graph.createNode("N" + i).linkedTo(graph.getNodes().get(i));
+
+        assertThat(cyclesFound().getMessage()).endsWith("\n  N9\n  ...").contains("found 12 cycle(s)");
+    }
+
+    @Test
+    public void shouldFindCycleOfRejectedLink() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        graph.keepTopologicalOrder();
+
+        Throwable throwable = catchThrowable(() -> C.linkedTo(A));
+
+        assertThat(throwable).isInstanceOf(CyclesFoundException.class);
+        assertThat(((CyclesFoundException) throwable).elementaryCycles(10, 10)
+                .map(cycle -> listToString(" -> ", cycle, node -> node.getValue().toString())))
+                .containsExactly("C -> A -> B");
+    }
+
+    @Test
+    public void shouldFindRejectedSelfLink() {
+        Node<String> A = graph.createNode("A");
+        graph.keepTopologicalOrder();
+
+        Throwable throwable = catchThrowable(() -> A.linkedTo(A));
+
+        assertThat(((CyclesFoundException) throwable).elementaryCycles(10, 10)).hasSize(1);
+    }
+
+    @Test
+    public void shouldFindCyclesOfIntGraph() {
+        IntGraph ints = new IntGraph();
+        ints.link(1, 2);
+        ints.link(2, 3);
+        ints.link(3, 1);
+        ints.link(2, 1);
+
+        Throwable throwable = catchThrowable(ints::topologicalSort);
+
+        assertThat(throwable).isInstanceOf(CyclesFoundException.class);
+        assertThat(((CyclesFoundException) throwable).elementaryCycles(10, 10)
+                .map(cycle -> cycle.stream().map(node -> (Integer) node.getValue()).sorted().collect(toList())))
+                .containsExactlyInAnyOrder(asList(1, 2, 3), asList(1, 2));
+    }
+}
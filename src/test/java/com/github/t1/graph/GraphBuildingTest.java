@@ -92,4 +92,57 @@ public class GraphBuildingTest {
 
         assertThat(graph).hasToString("A -> {B}\nB -> {C}\nC -> {A}");
     }
+
+    @Test
+    public void shouldFindOrCreateNode() {
+        Graph<String> graph = new Graph<>();
+        Node<String> A = graph.findOrCreateNode("A");
+        Node<String> B = graph.findOrCreateNode("B");
+
+        assertThat(graph.findOrCreateNode("A")).isSameAs(A);
+        assertThat(graph.findNode("B")).containsSame(B);
+        assertThat(graph.findNode("C")).isEmpty();
+        assertThat(graph).has(nodes(A, B));
+    }
+
+    @Test
+    public void shouldFailToCreateNodeWithDuplicateValue() {
+        Graph<String> graph = new Graph<>();
+        graph.createNode("A");
+
+        Throwable throwable = catchThrowable(() -> graph.createNode("A"));
+
+        assertThat(throwable)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("there is already a node with the value A");
+    }
+
+    @Test
+    public void shouldRemoveNode() {
+        Graph<String> graph = new Graph<>();
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+
+        boolean removed = graph.remove(A);
+
+        assertThat(removed).isTrue();
+        assertThat(graph.findNode("A")).isEmpty();
+        assertThat(graph).has(nodes(B));
+        assertThat(graph.createNode("A")).isNotSameAs(A);
+    }
+
+    @Test
+    public void shouldRemoveNodesByPredicate() {
+        Graph<String> graph = new Graph<>();
+        graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+
+        graph.remove(node -> !node.getValue().equals("B"));
+
+        assertThat(graph).has(nodes(B));
+        assertThat(graph.findNode("A")).isEmpty();
+        assertThat(graph.findNode("C")).isEmpty();
+        assertThat(graph.remove(C)).isFalse();
+    }
 }
@@ -0,0 +1,94 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphListener.Phase.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class GraphListenerTest {
+    private final Graph<String> graph = new Graph<>();
+    private final GraphStatistics statistics = new GraphStatistics();
+
+    private final Node<String> A = graph.createNode("A");
+    private final Node<String> B = graph.createNode("B");
+    private final Node<String> C = graph.createNode("C");
+
+    {
+        A.linkedTo(B);
+        B.linkedTo(C);
+    }
+
+    @Test
+    public void shouldNotReportAfterListenerIsRemoved() {
+        graph.setListener(statistics);
+        graph.topologicalSort();
+
+        graph.setListener(GraphListener.NONE);
+        graph.topologicalSort();
+        graph.findStronglyConnectedComponents();
+
+        assertThat(statistics.getCount(TOPOLOGICAL_SORT)).isEqualTo(1);
+        assertThat(statistics.getCount(STRONGLY_CONNECTED_COMPONENTS)).isEqualTo(1);
+        assertThat(statistics.getComponents()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReportTopologicalSort() {
+        graph.setListener(statistics);
+
+        graph.topologicalSort();
+
+        assertThat(statistics.getCount(TOPOLOGICAL_SORT)).isEqualTo(1);
+        assertThat(statistics.getCount(STRONGLY_CONNECTED_COMPONENTS)).isEqualTo(1);
+        assertThat(statistics.getTotalNanos(TOPOLOGICAL_SORT))
+                .isGreaterThanOrEqualTo(statistics.getTotalNanos(STRONGLY_CONNECTED_COMPONENTS));
+        assertThat(statistics.getMaxNodes()).isEqualTo(3);
+        assertThat(statistics.getMaxLinks()).isEqualTo(2);
+        assertThat(statistics.getComponents()).isEqualTo(3);
+        assertThat(statistics.getCycles()).isEqualTo(0);
+        assertThat(statistics.getMaxDepth()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReportCycles() {
+        C.linkedTo(A);
+        graph.setListener(statistics);
+
+        assertThatThrownBy(graph::topologicalSort).isInstanceOf(CyclesFoundException.class);
+
+        assertThat(statistics.getComponents()).isEqualTo(1);
+        assertThat(statistics.getCycles()).isEqualTo(1);
+        assertThat(statistics.getCount(TOPOLOGICAL_SORT)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCountComponentWithSelfLinkedFirstNodeOnce() {
+        C.linkedTo(A);
+        // C is the first node of the component
+        C.linkedTo(C);
+        graph.setListener(statistics);
+
+        graph.findStronglyConnectedComponents();
+
+        assertThat(statistics.getComponents()).isEqualTo(1);
+        assertThat(statistics.getCycles()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReportAllocatingPhases() {
+        graph.setListener(statistics);
+
+        graph.isReachable(A, C);
+        graph.condense();
+
+        assertThat(statistics.getCount(REACHABILITY)).isEqualTo(1);
+        assertThat(statistics.getCount(COMPACT)).isEqualTo(1);
+        assertThat(statistics.getCount(CONDENSE)).isEqualTo(1);
+        assertThat(statistics.toString()).contains("REACHABILITY: 1 times", "cycles: 0");
+    }
+
+    @Test
+    public void shouldRejectNullListener() {
+        assertThatThrownBy(() -> graph.setListener(null)).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class GraphSearchTest {
+    private final Graph<String> graph = new Graph<>();
+    private final Node<String> A = graph.createNode("A");
+    private final Node<String> B = graph.createNode("B").linkedTo(A);
+    private final Node<String> C = graph.createNode("C").linkedTo(A);
+
+    @Test
+    public void shouldCount() {
+        assertThat(graph.count(Node::hasLinks)).isEqualTo(2);
+        assertThat(graph.countingVisit(Node::hasLinks)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldFindFirstAndStop() {
+        List<Node<String>> tested = new ArrayList<>();
+
+        Optional<Node<String>> found = graph.findFirst(node -> tested.add(node) && node.hasLinks());
+
+        assertThat(found).containsSame(B);
+        assertThat(tested).containsExactly(A, B);
+        assertThat(graph.findFirst(node -> node.getValue().equals("D"))).isEmpty();
+    }
+
+    @Test
+    public void shouldMatchAny() {
+        assertThat(graph.anyMatch(node -> node.isLinkedTo(A))).isTrue();
+        assertThat(graph.anyMatch(node -> node.isLinkedTo(B))).isFalse();
+    }
+
+    @Test
+    public void shouldFindIntoReusedSink() {
+        List<Node<String>> sink = new ArrayList<>();
+
+        graph.find(Node::hasLinks, sink);
+        sink.clear();
+        List<Node<String>> result = graph.find(node -> !node.hasLinks(), sink);
+
+        assertThat(result).isSameAs(sink).containsExactly(A);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+
+public class GraphSnapshotTest {
+    private final Graph<String> graph = new Graph<>();
+
+    private final Node<String> C = graph.createNode("C");
+    private final Node<String> B = graph.createNode("B").linkedTo(C);
+    private final Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(C);
+
+    @Test
+    public void shouldTakeSnapshot() {
+        GraphSnapshot<String> snapshot = graph.snapshot();
+
+        assertThat(snapshot.getVersion()).isEqualTo(graph.getVersion()).isEqualTo(6);
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.ids()).containsExactly(0, 1, 2);
+        assertThat(snapshot.value(A.getId())).isEqualTo("A");
+        assertThat(snapshot.degree(A.getId())).isEqualTo(2);
+        assertThat(snapshot.isLinkedTo(A.getId(), C.getId())).isTrue();
+        assertThat(snapshot.isLinkedTo(C.getId(), A.getId())).isFalse();
+        assertThat(snapshot).hasToString("C -> {}\nB -> {C}\nA -> {B, C}");
+    }
+
+    @Test
+    public void shouldNotSeeLaterChanges() {
+        GraphSnapshot<String> before = graph.snapshot();
+
+        Node<String> D = graph.createNode("D").linkedTo(A);
+        C.linkedTo(D);
+        graph.remove(B);
+        GraphSnapshot<String> after = graph.snapshot();
+
+        assertThat(before).hasToString("C -> {}\nB -> {C}\nA -> {B, C}");
+        assertThat(before.getVersion()).isLessThan(after.getVersion());
+        assertThat(after).hasToString("C -> {D}\nA -> {C}\nD -> {A}");
+        assertThat(after.contains(B.getId())).isFalse();
+        assertThatThrownBy(() -> after.value(B.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("no node with id 1");
+    }
+
+    @Test
+    public void shouldShareUnchangedSnapshots() {
+        GraphSnapshot<String> first = graph.snapshot();
+        GraphSnapshot<String> second = graph.snapshot();
+
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+        assertThat(second).hasToString(first.toString());
+    }
+
+    @Test
+    public void shouldCompactSnapshot() {
+        graph.remove(B);
+        C.linkedTo(A);
+
+        CompactGraph<String> compact = graph.snapshot().compact();
+
+        assertThat(compact.size()).isEqualTo(2);
+        assertThat(compact.value(0)).isEqualTo("C");
+        assertThat(compact.findStronglyConnectedComponents()).hasSize(1);
+    }
+
+    @Test
+    public void shouldReadSnapshotsWhileWriting() throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new CopyOnWriteArrayList<>();
+            Node<String> previous = A;
+            for (int i = 0; i < 2_000; i++) {
+                Node<String> node = graph.createNode("N" + i);
+                previous.linkedTo(node);
+                previous = node;
+                GraphSnapshot<String> snapshot = graph.snapshot();
+                int expected = i + 4;
+                results.add(readers.submit(() -> {
+                    assertThat(snapshot.ids().count()).isEqualTo(expected);
+                    return snapshot.ids().map(snapshot::degree).sum();
+                }));
+            }
+            for (int i = 0; i < results.size(); i++)
+                assertThat(results.get(i).get()).isEqualTo(i + 4);
+        } finally {
+            readers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.t1.graph;
+
+import static java.util.Arrays.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+import com.github.t1.graph.Mark.StringMark;
+
+public class GraphViewTest {
+    private static final Mark m = new StringMark("m");
+
+    private final Graph<String> graph = new Graph<>();
+
+    private final Node<String> E = graph.createNode("E");
+    private final Node<String> D = graph.createNode("D").linkedTo(E);
+    private final Node<String> C = graph.createNode("C").linkedTo(D).marked(m);
+    private final Node<String> B = graph.createNode("B").linkedTo(C).marked(m);
+    private final Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(D).marked(m);
+
+    @Test
+    public void shouldViewMarkedNodes() {
+        GraphView<String> view = graph.view(m);
+
+        assertThat(view.getNodes()).containsExactly(C, B, A);
+        assertThat(view.size()).isEqualTo(3);
+        assertThat(view.linksOf(A)).containsExactly(B);
+        assertThat(view).hasToString("C -> {}\nB -> {C}\nA -> {B}");
+    }
+
+    @Test
+    public void shouldViewRegisteredMark() {
+        graph.register(m);
+
+        assertThat(graph.view(m).getNodes()).containsExactly(C, B, A);
+    }
+
+    @Test
+    public void shouldViewByPredicate() {
+        GraphView<String> view = graph.view(node -> node.getValue().compareTo("C") > 0);
+
+        assertThat(view.getNodes()).containsExactly(E, D);
+        assertThat(view.view(node -> node != E).getNodes()).containsExactly(D);
+    }
+
+    @Test
+    public void shouldViewReachableNodes() {
+        GraphView<String> view = graph.viewReachableFrom(C);
+
+        assertThat(view.getNodes()).containsExactly(E, D, C);
+        assertThat(view.contains(A)).isFalse();
+    }
+
+    @Test
+    public void shouldSortViewTopologically() {
+        E.linkedTo(A);
+
+        assertThatThrownBy(graph::topologicalSort).isInstanceOf(CyclesFoundException.class);
+        assertThat(graph.view(m).topologicallySorted()).containsExactly(A, B, C);
+    }
+
+    @Test
+    public void shouldFindCyclesOnlyWithinView() {
+        E.linkedTo(A);
+        C.linkedTo(A);
+
+        assertThat(graph.findStronglyConnectedComponents()).hasSize(1);
+        assertThat(graph.view(m).findStronglyConnectedComponents()).containsExactly(asList(B, A, C));
+        assertThatThrownBy(() -> graph.view(m).topologicallySorted())
+                .isInstanceOf(CyclesFoundException.class)
+                .hasMessage("found 1 cycle(s) in graph:\n  B -> A -> C");
+    }
+
+    @Test
+    public void shouldReachOnlyWithinView() {
+        GraphView<String> view = graph.view(node -> node != B);
+
+        assertThat(view.isReachable(A, C)).isFalse();
+        assertThat(view.isReachable(A, E)).isTrue();
+        assertThat(view.reachableFrom(A)).containsExactly(E, D);
+        assertThat(graph.isReachable(A, C)).isTrue();
+    }
+
+    @Test
+    public void shouldDropRemovedNodes() {
+        GraphView<String> view = graph.view(m);
+
+        graph.remove(B);
+
+        assertThat(view.getNodes()).containsExactly(C, A);
+    }
+
+    @Test
+    public void shouldSearchSmallViewOfBigGraph() {
+        for (int i = 0; i < 100_000; i++)
+            graph.createNode("N" + i).linkedTo(A);
+        GraphView<String> view = graph.view(m);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(view.size()).isEqualTo(3);
+            assertThat(view.findStronglyConnectedComponents()).hasSize(3);
+            assertThat(view.reachableFrom(A)).containsExactly(C, B);
+        }
+    }
+}
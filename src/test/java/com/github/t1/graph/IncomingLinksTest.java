@@ -0,0 +1,68 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class IncomingLinksTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldFindIncomingLinksWithoutKeepingThem() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B").linkedTo(A);
+        Node<String> C = graph.createNode("C").linkedTo(A).linkedTo(B);
+
+        assertThat(A.getIncoming()).containsExactly(B, C);
+        assertThat(B.getIncoming()).containsExactly(C);
+        assertThat(C.getIncoming()).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepIncomingLinksOfExistingAndNewNodes() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B").linkedTo(A);
+        graph.keepIncomingLinks();
+        Node<String> C = graph.createNode("C").linkedTo(A).linkedTo(B);
+        A.linkedTo(A);
+        List<Node<String>> visited = new ArrayList<>();
+
+        A.forEachIncoming(visited::add);
+
+        assertThat(visited).containsExactly(B, C, A);
+        assertThat(B.getIncoming()).containsExactly(C);
+        assertThat(C.getIncoming()).isEmpty();
+    }
+
+    @Test
+    public void shouldRemoveLinksToRemovedNode() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B").linkedTo(A);
+        Node<String> C = graph.createNode("C").linkedTo(A).linkedTo(B);
+
+        graph.remove(B);
+
+        assertThat(C.getLinks()).containsExactly(A);
+        assertThat(B).has(noLinks);
+        assertThat(graph).hasToString("A -> {}\nC -> {A}");
+    }
+
+    @Test
+    public void shouldRemoveKeptIncomingLinks() {
+        graph.keepIncomingLinks();
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B").linkedTo(A);
+        Node<String> C = graph.createNode("C").linkedTo(A).linkedTo(B);
+        B.linkedTo(B);
+
+        graph.remove(B);
+
+        assertThat(A.getIncoming()).containsExactly(C);
+        assertThat(B.getIncoming()).isEmpty();
+        assertThat(B).has(noLinks);
+        assertThat(graph).hasToString("A -> {}\nC -> {A}");
+    }
+}
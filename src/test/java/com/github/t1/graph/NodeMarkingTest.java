@@ -87,4 +87,102 @@ public class NodeMarkingTest {
         assertThat(C).is(unmarked);
         assertThat(marksRemoved).isEqualTo(2);
     }
+
+    private enum Color implements Mark {
+        RED, GREEN
+    }
+
+    @Test
+    public void shouldMarkRegistered() {
+        Graph<String> graph = new Graph<>();
+        graph.register(Color.RED);
+        Node<String> A = graph.createNode("A").marked(Color.RED).marked(m);
+        Node<String> B = graph.createNode("B").linkedTo(A);
+
+        assertThat(A).is(marked(m, Color.RED));
+        assertThat(A.isMarked(Color.RED)).isTrue();
+        assertThat(A.isMarked(Color.class)).isTrue();
+        assertThat(B).is(unmarked);
+        assertThat(graph.find(Color.RED)).containsExactly(A);
+        assertThat(graph).hasToString("A[m, RED] -> {}\nB -> {A}");
+    }
+
+    @Test
+    public void shouldKeepMarksWhenRegistering() {
+        Graph<String> graph = new Graph<>();
+        Node<String> A = graph.createNode("A").marked(Color.RED);
+        Node<String> B = graph.createNode("B").marked(Color.GREEN);
+
+        graph.register(Color.RED);
+
+        assertThat(A).is(marked(Color.RED));
+        assertThat(B).is(marked(Color.GREEN));
+        assertThat(graph.find(Color.RED)).containsExactly(A);
+    }
+
+    @Test
+    public void shouldMarkAndUnmarkGraphWithRegisteredMark() {
+        Graph<String> graph = new Graph<>();
+        graph.register(Color.RED);
+        Node<String> A = graph.createNode("A").marked(Color.RED);
+        Node<String> B = graph.createNode("B");
+        Node<String> C = graph.createNode("C");
+
+        int marksAdded = graph.mark(Color.RED);
+
+        assertThat(marksAdded).isEqualTo(2);
+        assertThat(graph.find(Color.RED)).containsExactly(A, B, C);
+
+        boolean wasMarked = B.unmark(Color.RED);
+        int marksRemoved = graph.unmark(Color.RED);
+
+        assertThat(wasMarked).isTrue();
+        assertThat(marksRemoved).isEqualTo(2);
+        assertThat(graph.find(Color.RED)).isEmpty();
+        assertThat(graph).has(noMarks);
+    }
+
+    @Test
+    public void shouldUnmarkRegisteredMarkByType() {
+        Graph<String> graph = new Graph<>();
+        graph.register(Color.RED);
+        graph.register(Color.GREEN);
+        Node<String> A = graph.createNode("A").marked(Color.GREEN);
+        Node<String> B = graph.createNode("B").marked(m);
+
+        int marksRemoved = graph.unmark(Color.class);
+
+        assertThat(marksRemoved).isEqualTo(1);
+        assertThat(A).is(unmarked);
+        assertThat(B).is(marked(m));
+    }
+
+    @Test
+    public void shouldForgetRegisteredMarksOfRemovedNode() {
+        Graph<String> graph = new Graph<>();
+        graph.register(Color.RED);
+        Node<String> A = graph.createNode("A").marked(Color.RED);
+        Node<String> B = graph.createNode("B").marked(Color.RED);
+
+        graph.remove(A);
+
+        assertThat(graph.find(Color.RED)).containsExactly(B);
+        assertThat(graph.unmark(Color.RED)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotSetRegisteredMarkForRemovedNode() {
+        Graph<String> graph = new Graph<>();
+        graph.register(Color.RED);
+        Node<String> A = graph.createNode("A").marked(Color.GREEN);
+        Node<String> B = graph.createNode("B");
+        graph.remove(A);
+
+        assertThat(A.mark(Color.RED)).isTrue();
+
+        assertThat(A.getMarks()).containsExactly(Color.GREEN, Color.RED);
+        assertThat(graph.find(Color.RED)).isEmpty();
+        assertThat(graph.mark(Color.RED)).isEqualTo(1);
+        assertThat(graph.find(Color.RED)).containsExactly(B);
+    }
 }
@@ -0,0 +1,94 @@
+package com.github.t1.graph;
+
+import static java.util.Comparator.*;
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.*;
+
+import com.github.t1.graph.Mark.StringMark;
+
+public class ParallelGraphTest {
+    private static final Mark m = new StringMark("m");
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final Graph<Integer> graph = new Graph<>();
+
+    @After
+    public void after() {
+        pool.shutdown();
+    }
+
+    /** chains of clusters with random links within each cluster, some back links and some self links */
+    private void generate(int size) {
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++)
+            graph.createNode(i);
+        List<Node<Integer>> nodes = graph.getNodes();
+        for (int i = 0; i < size; i++) {
+            int cluster = i - i % 50;
+            nodes.get(i).linkedTo(nodes.get(cluster + random.nextInt(Math.min(50, size - cluster))));
+            if (i + 1 < size)
+                nodes.get(i).linkedTo(nodes.get(i + 1));
+            if (random.nextInt(1000) == 0)
+                nodes.get(i).linkedTo(nodes.get(random.nextInt(size)));
+        }
+    }
+
+    private static Set<Set<Integer>> valueSets(List<List<Node<Integer>>> components) {
+        return components.stream()
+                .map(component -> component.stream().map(Node::getValue).collect(toSet()))
+                .collect(toSet());
+    }
+
+    @Test
+    public void shouldFindSameComponentsInParallel() {
+        generate(50_000);
+
+        List<List<Node<Integer>>> sequential = graph.findStronglyConnectedComponents();
+        List<List<Node<Integer>>> parallel = graph.findStronglyConnectedComponents(pool);
+
+        assertThat(parallel).hasSameSizeAs(sequential);
+        assertThat(valueSets(parallel)).isEqualTo(valueSets(sequential));
+    }
+
+    @Test
+    public void shouldFindComponentsOfLongChainInParallel() {
+        int size = 100_000;
+        for (int i = 0; i < size; i++)
+            graph.createNode(i);
+        for (int i = 1; i < size; i++)
+            graph.getNodes().get(i).linkedTo(graph.getNodes().get(i - 1));
+
+        List<List<Node<Integer>>> components = graph.findStronglyConnectedComponents(pool);
+
+        assertThat(components).hasSize(size).allMatch(component -> component.size() == 1);
+    }
+
+    @Test
+    public void shouldFindSmallGraphComponentsSequentially() {
+        generate(100);
+
+        assertThat(graph.findStronglyConnectedComponents(pool)).isEqualTo(graph.findStronglyConnectedComponents());
+    }
+
+    @Test
+    public void shouldVisitFindAndMarkInParallel() {
+        generate(10_000);
+        AtomicInteger visited = new AtomicInteger();
+
+        graph.visit(pool, node -> visited.incrementAndGet());
+        List<Node<Integer>> found = graph.find(pool, node -> node.getValue() % 2 == 0);
+        int marked = graph.mark(pool, m);
+        int unmarked = graph.unmark(pool, m);
+
+        assertThat(visited).hasValue(10_000);
+        assertThat(found).hasSize(5_000).isSortedAccordingTo(comparing(Node::getValue));
+        assertThat(marked).isEqualTo(10_000);
+        assertThat(unmarked).isEqualTo(10_000);
+    }
+}
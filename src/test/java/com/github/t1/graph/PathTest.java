@@ -0,0 +1,83 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class PathTest {
+    private final Graph<String> graph = new Graph<>();
+
+    private final Node<String> E = graph.createNode("E");
+    private final Node<String> D = graph.createNode("D").linkedTo(E, 1);
+    private final Node<String> C = graph.createNode("C").linkedTo(D, 1);
+    private final Node<String> B = graph.createNode("B").linkedTo(E, 10);
+    private final Node<String> A = graph.createNode("A").linkedTo(B, 1).linkedTo(C, 2);
+
+    @Test
+    public void shouldStoreWeights() {
+        Node<String> X = graph.createNode("X").linkedTo(A).linkedTo(B, 3).linkedTo(C);
+
+        assertThat(X.getWeight(0)).isEqualTo(1);
+        assertThat(X.getWeight(1)).isEqualTo(3);
+        assertThat(X.getWeight(2)).isEqualTo(1);
+        assertThatThrownBy(() -> X.getWeight(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void shouldKeepWeightsWhenRemovingNode() {
+        Node<String> X = graph.createNode("X").linkedTo(A, 2).linkedTo(B, 3).linkedTo(C, 4);
+
+        graph.remove(B);
+
+        assertThat(X.getLinks()).containsExactly(A, C);
+        assertThat(X.getWeight(0)).isEqualTo(2);
+        assertThat(X.getWeight(1)).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldFindShortestPath() {
+        assertThat(graph.shortestPath(A, E).get().getNodes()).containsExactly(A, B, E);
+        assertThat(graph.shortestPath(A, E).get().getLength()).isEqualTo(2);
+        assertThat(graph.shortestPath(A, A).get().getNodes()).containsExactly(A);
+        assertThat(graph.shortestPath(E, A)).isEmpty();
+    }
+
+    @Test
+    public void shouldFindLightestPath() {
+        WeightedPath<String> path = graph.lightestPath(A, E).get();
+
+        assertThat(path.getNodes()).containsExactly(A, C, D, E);
+        assertThat(path.getLength()).isEqualTo(4);
+        assertThat(path.toString()).isEqualTo("A -> C -> D -> E (4.0)");
+        assertThat(graph.lightestPath(B, C)).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectNegativeWeights() {
+        C.linkedTo(E, -1);
+
+        assertThatThrownBy(() -> graph.lightestPath(A, E))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("negative weight -1.0 on link from C to E");
+    }
+
+    @Test
+    public void shouldFindCriticalPath() {
+        WeightedPath<String> path = graph.criticalPath();
+
+        assertThat(path.getNodes()).containsExactly(A, B, E);
+        assertThat(path.getLength()).isEqualTo(11);
+    }
+
+    @Test
+    public void shouldFindCriticalPathOfEmptyGraph() {
+        assertThat(new Graph<String>().criticalPath().getNodes()).isEmpty();
+    }
+
+    @Test
+    public void shouldFailToFindCriticalPathWithCycle() {
+        E.linkedTo(A);
+
+        assertThatThrownBy(graph::criticalPath).isInstanceOf(CyclesFoundException.class);
+    }
+}
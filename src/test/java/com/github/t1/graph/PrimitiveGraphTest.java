@@ -0,0 +1,89 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class PrimitiveGraphTest {
+    @Test
+    public void shouldBuildIntGraph() {
+        IntGraph graph = new IntGraph();
+        graph.link(30, 10);
+        graph.link(20, 10);
+        graph.link(30, 20);
+
+        assertThat(graph.size()).isEqualTo(3);
+        assertThat(graph.linkCount()).isEqualTo(3);
+        assertThat(graph.findNode(20)).isEqualTo(2);
+        assertThat(graph.findNode(40)).isEqualTo(-1);
+        assertThat(graph.findOrCreateNode(10)).isEqualTo(1);
+        assertThat(graph.value(0)).isEqualTo(30);
+        assertThat(graph).hasToString("30 -> {10, 20}\n10 -> {}\n20 -> {10}");
+    }
+
+    @Test
+    public void shouldIndexManyIntValues() {
+        IntGraph graph = new IntGraph();
+        int count = 100_000;
+        for (int i = 0; i < count; i++)
+            graph.link(i * 7919, (i + 1) * 7919);
+
+        assertThat(graph.size()).isEqualTo(count + 1);
+        for (int i = 0; i <= count; i++)
+            assertThat(graph.findNode(i * 7919)).isEqualTo(i);
+        assertThat(graph.topologicalSort()[count]).isEqualTo(count * 7919);
+        assertThat(graph.isReachable(0, count * 7919)).isTrue();
+        assertThat(graph.isReachable(count * 7919, 0)).isFalse();
+    }
+
+    @Test
+    public void shouldSortIntGraph() {
+        IntGraph graph = new IntGraph();
+        graph.link(2, 3);
+        graph.link(1, 2);
+        graph.findOrCreateNode(0);
+
+        assertThat(graph.topologicalSort()).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldFindCyclesInIntGraph() {
+        IntGraph graph = new IntGraph();
+        graph.link(1, 2);
+        graph.link(2, 3);
+        graph.link(3, 1);
+        graph.link(3, 4);
+
+        List<int[]> components = graph.findStronglyConnectedComponents();
+        Throwable throwable = catchThrowable(graph::topologicalSort);
+
+        assertThat(components).containsExactly(new int[] { 4 }, new int[] { 3, 2, 1 });
+        assertThat(throwable).hasMessage("found 1 cycle(s) in graph:\n  3 -> 2 -> 1");
+    }
+
+    @Test
+    public void shouldBuildLongGraph() {
+        LongGraph graph = new LongGraph();
+        long big = 1L << 40;
+        graph.link(big + 1, big);
+        graph.link(big, -big);
+
+        assertThat(graph.findNode(-big)).isEqualTo(2);
+        assertThat(graph.value(1)).isEqualTo(big);
+        assertThat(graph.topologicalSort()).containsExactly(big + 1, big, -big);
+        assertThat(graph.findStronglyConnectedComponents()).hasSize(3);
+        assertThat(graph.isReachable(big + 1, -big)).isTrue();
+    }
+
+    @Test
+    public void shouldFailToLinkUnknownVertex() {
+        IntGraph graph = new IntGraph();
+        graph.findOrCreateNode(5);
+
+        Throwable throwable = catchThrowable(() -> graph.linkVertices(0, 1));
+
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class).hasMessage("no vertex 1");
+    }
+}
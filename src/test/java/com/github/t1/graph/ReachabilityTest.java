@@ -0,0 +1,91 @@
+package com.github.t1.graph;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class ReachabilityTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldReachTransitively() {
+        Node<String> D = graph.createNode("D");
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        Node<String> E = graph.createNode("E");
+
+        assertThat(graph.isReachable(A, D)).isTrue();
+        assertThat(graph.isReachable(D, A)).isFalse();
+        assertThat(graph.isReachable(A, A)).isFalse();
+        assertThat(graph.isReachable(A, E)).isFalse();
+        assertThat(graph.reachableFrom(A)).containsExactly(D, C, B);
+        assertThat(graph.reachableFrom(D)).isEmpty();
+    }
+
+    @Test
+    public void shouldReachWithinCycle() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(B);
+
+        assertThat(graph.isReachable(B, B)).isTrue();
+        assertThat(graph.isReachable(C, B)).isTrue();
+        assertThat(graph.isReachable(C, A)).isFalse();
+        assertThat(graph.reachableFrom(A)).containsExactly(C, B);
+        assertThat(graph.reachableFrom(C)).containsExactly(C, B);
+    }
+
+    @Test
+    public void shouldUpdateWhenLinking() {
+        Node<String> A = graph.createNode("A");
+        Node<String> B = graph.createNode("B");
+        assertThat(graph.isReachable(A, B)).isFalse();
+
+        A.linkedTo(B);
+
+        assertThat(graph.isReachable(A, B)).isTrue();
+    }
+
+    @Test
+    public void shouldUpdateWhenRemoving() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        assertThat(graph.isReachable(A, C)).isTrue();
+
+        graph.remove(B);
+
+        assertThat(graph.isReachable(A, C)).isFalse();
+        assertThat(graph.isReachable(A, B)).isFalse();
+    }
+
+    @Test
+    public void shouldNotReachNewNode() {
+        Node<String> A = graph.createNode("A");
+        assertThat(graph.reachableFrom(A)).isEmpty();
+
+        Node<String> B = graph.createNode("B");
+
+        assertThat(graph.isReachable(A, B)).isFalse();
+        assertThat(graph.isReachable(B, A)).isFalse();
+    }
+
+    @Test
+    public void shouldReachAlongLongChainWithBoundedMemory() {
+        int size = 100_000;
+        for (int i = 0; i < size; i++)
+            graph.createNode("N" + i);
+        List<Node<String>> nodes = graph.getNodes();
+        for (int i = 1; i < size; i++)
+            nodes.get(i - 1).linkedTo(nodes.get(i));
+
+        for (int i = 0; i < size; i += 1_000)
+            assertThat(graph.isReachable(nodes.get(i), nodes.get(size - 1))).isTrue();
+        assertThat(graph.isReachable(nodes.get(size - 1), nodes.get(0))).isFalse();
+        assertThat(graph.reachableFrom(nodes.get(size - 10))).hasSize(9);
+    }
+}
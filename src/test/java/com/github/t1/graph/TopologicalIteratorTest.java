@@ -0,0 +1,64 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class TopologicalIteratorTest {
+    private final Graph<String> graph = new Graph<>();
+
+    @Test
+    public void shouldIterateEmptyGraph() {
+        assertThat(graph.topologicalIterator()).isExhausted();
+    }
+
+    @Test
+    public void shouldStreamNodesInTopologicalOrder() {
+        Node<String> D = graph.createNode("D");
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(C).linkedTo(D);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+
+        assertThat(graph.topologicalStream().collect(toList())).containsExactly(A, B, C, D);
+        assertThat(graph).as("unchanged").has(nodes(D, C, B, A));
+    }
+
+    @Test
+    public void shouldReturnNodesBeforeHittingCycle() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(B);
+        Iterator<Node<String>> iterator = graph.topologicalIterator();
+
+        assertThat(iterator.next()).isSameAs(A);
+        Throwable throwable = catchThrowable(iterator::hasNext);
+
+        assertThat(throwable).has(cycle(B, C));
+    }
+
+    @Test
+    public void shouldNotCountStreamWithCycle() {
+        Node<String> B = graph.createNode("B");
+        graph.createNode("A").linkedTo(B);
+        B.linkedTo(B);
+
+        Throwable throwable = catchThrowable(() -> graph.topologicalStream().count());
+
+        assertThat(throwable).has(cycle(B));
+    }
+
+    @Test
+    public void shouldIgnoreRemovedNodes() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(C);
+        graph.remove(B);
+
+        assertThat(graph.topologicalStream().collect(toList())).containsExactly(A, C);
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.t1.graph;
+
+import static com.github.t1.graph.GraphConditions.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+public class TopologicalLevelsTest {
+    private final Graph<String> graph = new Graph<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void after() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldSortEmptyGraphIntoNoLevels() {
+        assertThat(graph.topologicalLevels()).isEmpty();
+    }
+
+    @Test
+    public void shouldSortDiamondIntoLevels() {
+        Node<String> D = graph.createNode("D");
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(D);
+        Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(C);
+        Node<String> E = graph.createNode("E");
+
+        List<List<Node<String>>> levels = graph.topologicalLevels();
+
+        assertThat(levels).hasSize(3);
+        assertThat(levels.get(0)).containsExactlyInAnyOrder(A, E);
+        assertThat(levels.get(1)).containsExactlyInAnyOrder(B, C);
+        assertThat(levels.get(2)).containsExactly(D);
+        assertThat(graph).as("unchanged").has(nodes(D, C, B, A, E));
+    }
+
+    @Test
+    public void shouldSortNodeIntoLevelAfterItsLongestPath() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B).linkedTo(C);
+
+        List<List<Node<String>>> levels = graph.topologicalLevels(new ForkJoinPool(2));
+
+        assertThat(levels).containsExactly(Arrays.asList(A), Arrays.asList(B), Arrays.asList(C));
+    }
+
+    @Test
+    public void shouldFindCycleWhenSortingIntoLevels() {
+        Node<String> C = graph.createNode("C");
+        Node<String> B = graph.createNode("B").linkedTo(C);
+        Node<String> A = graph.createNode("A").linkedTo(B);
+        C.linkedTo(A);
+
+        Throwable throwable = catchThrowable(graph::topologicalLevels);
+
+        assertThat(throwable).has(cycle(B, A, C));
+    }
+
+    @Test
+    public void shouldExecuteAfterAllPredecessors() throws Exception {
+        Node<String> D = graph.createNode("D");
+        Node<String> C = graph.createNode("C").linkedTo(D);
+        Node<String> B = graph.createNode("B").linkedTo(D);
+        graph.createNode("A").linkedTo(B).linkedTo(C);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        graph.execute(executor, node -> executed.add(node.getValue())).get(10, TimeUnit.SECONDS);
+
+        assertThat(executed).hasSize(4);
+        assertThat(executed.get(0)).isEqualTo("A");
+        assertThat(executed.subList(1, 3)).containsExactlyInAnyOrder("B", "C");
+        assertThat(executed.get(3)).isEqualTo("D");
+    }
+
+    @Test
+    public void shouldExecuteNothingForEmptyGraph() throws Exception {
+        graph.execute(executor, node -> fail("unexpected " + node)).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldStopExecutingAfterFailure() {
+        Node<String> B = graph.createNode("B");
+        graph.createNode("A").linkedTo(B);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Void> done = graph.execute(executor, node -> {
+            executed.add(node.getValue());
+            throw new IllegalStateException("failed " + node.getValue());
+        });
+        Throwable throwable = catchThrowable(() -> done.get(10, TimeUnit.SECONDS));
+
+        assertThat(throwable).isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("failed A");
+        assertThat(executed).containsExactly("A");
+    }
+
+    @Test
+    public void shouldExecuteLongChainInCallingThread() throws Exception {
+        Node<String> previous = graph.createNode("0");
+        for (int i = 1; i < 100_000; i++)
+            previous = graph.createNode(Integer.toString(i)).linkedTo(previous);
+        List<String> executed = new ArrayList<>();
+
+        graph.execute(Runnable::run, node -> executed.add(node.getValue())).get(10, TimeUnit.SECONDS);
+
+        assertThat(executed).hasSize(100_000).startsWith("99999").endsWith("0");
+    }
+
+    @Test
+    public void shouldFailWhenExecutorRejects() {
+        graph.createNode("A");
+
+        CompletableFuture<Void> done = graph.execute(command -> {
+            throw new RejectedExecutionException("full");
+        }, node -> fail("unexpected " + node));
+
+        assertThat(catchThrowable(() -> done.get(10, TimeUnit.SECONDS))).hasRootCauseMessage("full");
+    }
+
+    @Test
+    public void shouldNotExecuteAnythingWithCycle() {
+        Node<String> A = graph.createNode("A");
+        A.linkedTo(A);
+
+        Throwable throwable = catchThrowable(() -> graph.execute(executor, node -> fail("unexpected " + node)));
+
+        assertThat(throwable).has(cycle(A));
+    }
+}
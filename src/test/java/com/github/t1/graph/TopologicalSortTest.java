@@ -3,6 +3,8 @@ package com.github.t1.graph;
 import static com.github.t1.graph.GraphConditions.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.List;
+
 import org.junit.*;
 
 public class TopologicalSortTest {
@@ -152,4 +154,32 @@ public class TopologicalSortTest {
                 .has(nodes(E, D, C, B, A))
                 .hasToString("E -> {B}\nD -> {E}\nC -> {D, A}\nB -> {C}\nA -> {B}");
     }
+
+    @Test
+    public void shouldSortLongChainWithoutStackOverflow() {
+        int count = 100_000;
+        Node<String> previous = graph.createNode("0");
+        for (int i = 1; i < count; i++)
+            previous = graph.createNode(Integer.toString(i)).linkedTo(previous);
+
+        graph.topologicalSort();
+
+        assertThat(graph.getNodes().get(0).getValue()).isEqualTo(Integer.toString(count - 1));
+        assertThat(graph.getNodes().get(count - 1).getValue()).isEqualTo("0");
+    }
+
+    @Test
+    public void shouldFindSingleComponentInLongCycle() {
+        int count = 100_000;
+        Node<String> first = graph.createNode("0");
+        Node<String> previous = first;
+        for (int i = 1; i < count; i++)
+            previous = graph.createNode(Integer.toString(i)).linkedTo(previous);
+        first.linkedTo(previous);
+
+        List<List<Node<String>>> components = graph.findStronglyConnectedComponents();
+
+        assertThat(components).hasSize(1);
+        assertThat(components.get(0)).hasSize(count);
+    }
 }